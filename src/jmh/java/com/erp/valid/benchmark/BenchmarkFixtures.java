@@ -0,0 +1,62 @@
+package com.erp.valid.benchmark;
+
+import com.erp.valid.util.JwtKeyFiles;
+import com.erp.valid.util.JwtKeyRing;
+import com.erp.valid.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+
+/**
+ * Builds the beans under test without starting a Spring context.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET =
+            "aVeryLongSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLongAndSecure!@#$%^&*()1234567890";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtUtil jwtUtil() {
+        return jwtUtil(JwtKeyRing.Algorithm.HS256);
+    }
+
+    static JwtUtil jwtUtil(JwtKeyRing.Algorithm algorithm) {
+        return jwtUtil(keyRing(algorithm));
+    }
+
+    static JwtKeyRing keyRing(JwtKeyRing.Algorithm algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        if (algorithm != JwtKeyRing.Algorithm.HS256) {
+            ReflectionTestUtils.setField(keyRing, "keyDir", keyDir(algorithm).toString());
+            ReflectionTestUtils.setField(keyRing, "publishLeadMs", 600_000L);
+            ReflectionTestUtils.setField(keyRing, "jwksMaxAgeSeconds", 300L);
+        }
+        ReflectionTestUtils.invokeMethod(keyRing, "init");
+        return keyRing;
+    }
+
+    static JwtUtil jwtUtil(JwtKeyRing keyRing) {
+        JwtUtil jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    private static Path keyDir(JwtKeyRing.Algorithm algorithm) {
+        try {
+            Path dir = Files.createTempDirectory("jwt-keys");
+            JwtKeyFiles.write(dir, "bench", algorithm, Instant.EPOCH);
+            return dir;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create benchmark signing key", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.erp.valid.benchmark;
+
+import com.erp.valid.config.CacheConfig;
+import com.erp.valid.config.JwtAuthenticationFilter;
+import com.erp.valid.service.RoleAuthorityService;
+import com.erp.valid.service.TokenCacheService;
+import com.erp.valid.service.TokenRevocationService;
+import com.erp.valid.service.TokenVersionService;
+import com.erp.valid.util.BloomFilter;
+import com.erp.valid.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full filter pass for an authenticated request.
+ * cacheSize=0 measures the cold path where every request pays for signature verification.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil();
+        TokenCacheService tokenCacheService =
+                new TokenCacheService(new CacheConfig().verifiedTokenCache(cacheSize), jwtUtil);
+        // Empty revocation filter: every request takes the in-memory "not revoked" fast path
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(null);
+        ReflectionTestUtils.setField(tokenRevocationService, "filter", new BloomFilter(100_000, 0.01));
+        // Version already cached, as it is for any user seen within the cache TTL
+        Cache<Long, Integer> versions = new CacheConfig().tokenVersionCache(10_000, 60);
+        versions.put(42L, 0);
+        TokenVersionService tokenVersionService = new TokenVersionService(null, versions, null);
+        // Authority map already loaded, as it is once the application has started
+        RoleAuthorityService roleAuthorityService = new RoleAuthorityService(null);
+        ReflectionTestUtils.setField(roleAuthorityService, "authorities",
+                Map.of("ROLE_USER", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        filter = new JwtAuthenticationFilter(tokenCacheService, tokenRevocationService, tokenVersionService,
+                roleAuthorityService, new SimpleMeterRegistry());
+        authorization = "Bearer " + jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/profile");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
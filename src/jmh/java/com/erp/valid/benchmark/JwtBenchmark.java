@@ -0,0 +1,73 @@
+package com.erp.valid.benchmark;
+
+import com.erp.valid.util.JwtKeyRing;
+import com.erp.valid.util.JwtPrincipal;
+import com.erp.valid.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParserBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification.
+ * {@code verifyWithFreshParser} reproduces the old per-call key and parser construction as a baseline:
+ * the HMAC key is derived from the secret, or the public key decoded from its X.509 encoding, on every call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    private JwtKeyRing.Algorithm algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private byte[] encodedPublicKey;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = BenchmarkFixtures.keyRing(algorithm);
+        jwtUtil = BenchmarkFixtures.jwtUtil(keyRing);
+        token = jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+        encodedPublicKey = keyRing.activeKey().verificationKey().getEncoded();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims verifyWithFreshParser() throws GeneralSecurityException {
+        JwtParserBuilder parser = Jwts.parser();
+        if (algorithm == JwtKeyRing.Algorithm.HS256) {
+            parser.verifyWith(Keys.hmacShaKeyFor(BenchmarkFixtures.SECRET.getBytes(StandardCharsets.UTF_8)));
+        } else {
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm == JwtKeyRing.Algorithm.ES256 ? "EC" : "Ed25519");
+            parser.verifyWith(keyFactory.generatePublic(new X509EncodedKeySpec(encodedPublicKey)));
+        }
+        return parser.build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
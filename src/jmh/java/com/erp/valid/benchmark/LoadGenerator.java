@@ -0,0 +1,118 @@
+package com.erp.valid.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for a running instance, to compare platform and virtual threads.
+ * Each client sends requests back to back for the given duration. The test reports throughput
+ * and latency percentiles. Not named *Test so surefire does not pick it up.
+ *
+ * Start the app once plainly and once with --spring.profiles.active=virtual (Java 21), then run:
+ * mvn -Pbenchmark test-compile exec:java -Dexec.mainClass=com.erp.valid.benchmark.LoadGenerator
+ *     -Dexec.classpathScope=test -Dloadtest.token=ACCESS_TOKEN
+ *
+ * Options (system properties): loadtest.url (default GET /api/auth/sessions, one indexed JDBC query),
+ * loadtest.token, loadtest.concurrency (200), loadtest.duration-seconds (30), loadtest.warmup-seconds (5).
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(System.getProperty("loadtest.url", "http://localhost:8082/api/auth/sessions"));
+        String token = System.getProperty("loadtest.token");
+        int concurrency = Integer.getInteger("loadtest.concurrency", 200);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 5);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.min(concurrency, 64)))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("Warming up %ds against %s%n", warmupSeconds, uri);
+        run(client, request, concurrency, warmupSeconds);
+
+        System.out.printf("Measuring %ds with %d concurrent clients%n", durationSeconds, concurrency);
+        Result result = run(client, request, concurrency, durationSeconds);
+
+        long[] latencies = result.latenciesMicros();
+        Arrays.sort(latencies);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                latencies.length, result.errors(), latencies.length / (double) durationSeconds);
+        System.out.printf("latency p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), percentile(latencies, 1.0));
+        System.exit(0);
+    }
+
+    private record Result(long[] latenciesMicros, long errors) {
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = (System.nanoTime() - start) / 1_000;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] samples = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + samples.length);
+                System.arraycopy(samples, 0, all, offset, samples.length);
+            }
+            return new Result(all, errors.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000.0;
+    }
+}
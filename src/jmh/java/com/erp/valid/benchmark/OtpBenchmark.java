@@ -0,0 +1,34 @@
+package com.erp.valid.benchmark;
+
+import com.erp.valid.util.OtpUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OtpBenchmark {
+
+    private static final byte[] KEY = "benchmark-otp-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public String generateOtp() {
+        return OtpUtil.generateOtp();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateOtpContended() {
+        return OtpUtil.generateOtp();
+    }
+
+    @Benchmark
+    public byte[] digestOtp() {
+        return OtpUtil.digest(KEY, "john@example.com", "123456");
+    }
+}
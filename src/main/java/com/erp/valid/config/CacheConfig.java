@@ -1,26 +1,89 @@
 package com.erp.valid.config;
 
+import com.erp.valid.util.JwtPrincipal;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
 
-//    @Bean
-//    public Cache<String, String> otpCache() {
-//        return Caffeine.newBuilder()
-//                .expireAfterWrite(5, TimeUnit.MINUTES)  // OTP expires after 5 minutes
-//                .maximumSize(10_000)  // Maximum 10,000 OTPs in cache
-//                .recordStats()  // Enable statistics tracking
-//                .build();
-//    }
+    /**
+     * Verified access tokens keyed by token digest.
+     * Each entry lives exactly as long as the token it was verified from.
+     */
+    @Bean
+    public Cache<String, JwtPrincipal> verifiedTokenCache(
+            @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        return verifiedTokenCache(maxSize, Ticker.systemTicker());
+    }
+
+    public static Cache<String, JwtPrincipal> verifiedTokenCache(long maxSize, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal,
+                                                  long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Current token version per user id. Updated in place by change events on this node;
+     * the TTL bounds how long a change made on another node goes unnoticed.
+     */
+    @Bean
+    public Cache<Long, Integer> tokenVersionCache(
+            @Value("${jwt.token-version.cache.max-size:10000}") long maxSize,
+            @Value("${jwt.token-version.cache.ttl-seconds:60}") long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Hit, miss and eviction counts of the local caches, published as cache.* meters
+     */
+    @Bean
+    public MeterBinder cacheMetrics(Cache<String, JwtPrincipal> verifiedTokenCache,
+                                    Cache<Long, Integer> tokenVersionCache) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, verifiedTokenCache, "jwt.verified");
+            CaffeineCacheMetrics.monitor(registry, tokenVersionCache, "jwt.token-version");
+        };
+    }
 
     @Bean
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
@@ -36,4 +99,17 @@ public class CacheConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * String keys with raw byte values, for compact binary entries such as OTP digests
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+        return template;
+    }
+}
@@ -2,8 +2,10 @@ package com.erp.valid.config;
 
 import com.erp.valid.entity.Role;
 import com.erp.valid.repository.RoleRepository;
+import com.erp.valid.service.RolePermissionsChangedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class DataInitializer implements CommandLineRunner {
 
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public void run(String... args) throws Exception {
@@ -19,6 +22,7 @@ public class DataInitializer implements CommandLineRunner {
             userRole.setName("ROLE_USER");
             roleRepository.save(userRole);
             System.out.println("Default ROLE_USER created");
+            eventPublisher.publishEvent(new RolePermissionsChangedEvent());
         }
     }
 }
\ No newline at end of file
@@ -1,28 +1,64 @@
 package com.erp.valid.config;
 
-import com.erp.valid.util.JwtUtil;
+import com.erp.valid.service.RoleAuthorityService;
+import com.erp.valid.service.TokenCacheService;
+import com.erp.valid.service.TokenRevocationService;
+import com.erp.valid.service.TokenVersionService;
+import com.erp.valid.util.JwtPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final TokenCacheService tokenCacheService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionService tokenVersionService;
+    private final RoleAuthorityService roleAuthorityService;
+
+    /**
+     * Verification timers by outcome, registered once so the hot path does no meter lookup
+     */
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer revokedTimer;
+    private final Timer outdatedTimer;
+
+    public JwtAuthenticationFilter(TokenCacheService tokenCacheService,
+                                   TokenRevocationService tokenRevocationService,
+                                   TokenVersionService tokenVersionService,
+                                   RoleAuthorityService roleAuthorityService,
+                                   MeterRegistry meterRegistry) {
+        this.tokenCacheService = tokenCacheService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.tokenVersionService = tokenVersionService;
+        this.roleAuthorityService = roleAuthorityService;
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
+        this.revokedTimer = verifyTimer(meterRegistry, "revoked");
+        this.outdatedTimer = verifyTimer(meterRegistry, "outdated");
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Access token verification, including revocation and version checks")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -32,19 +68,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = extractTokenFromRequest(request);
+            long start = System.nanoTime();
+
+            JwtPrincipal principal = token != null ? tokenCacheService.verify(token).orElse(null) : null;
+            Timer outcome = principal != null ? validTimer : invalidTimer;
 
-            if (token != null && jwtUtil.validateToken(token)) {
-                String email = jwtUtil.extractEmail(token);
-                Long userId = jwtUtil.extractUserId(token);
-                String role = jwtUtil.extractRole(token);
+            if (principal != null && tokenRevocationService.isRevoked(principal)) {
+                log.debug("Rejected revoked token for user: {}", principal.email());
+                principal = null;
+                outcome = revokedTimer;
+            }
+
+            if (principal != null && !tokenVersionService.isCurrent(principal)) {
+                log.debug("Rejected token with outdated version for user: {}", principal.email());
+                principal = null;
+                outcome = outdatedTimer;
+            }
+
+            if (token != null) {
+                outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
 
-                log.debug("Authenticated request from user: {} (ID: {})", email, userId);
+            if (principal != null) {
+                log.debug("Authenticated request from user: {} (ID: {})", principal.email(), principal.userId());
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
-                                email,
+                                principal,
                                 null,
-                                Collections.singletonList(new SimpleGrantedAuthority(role))
+                                roleAuthorityService.authoritiesFor(principal.role())
                         );
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,230 @@
+package com.erp.valid.config;
+
+import com.erp.valid.dto.UserResponse;
+import com.erp.valid.service.RateLimiter;
+import com.erp.valid.util.EmailNormalizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Throttles the public /api/auth endpoints per client IP and per email.
+ *
+ * Runs before JwtAuthenticationFilter, so a rejected request never reaches the database,
+ * the password hashing pool or the mail queue. Rejections get 429 with Retry-After.
+ * Bodies that must be inspected for the email are capped at 16 KB; larger ones get 413.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.rate-limit.period-seconds:60}")
+    private long periodSeconds;
+
+    @Value("${security.rate-limit.login.per-ip:20}")
+    private int loginPerIp;
+
+    @Value("${security.rate-limit.login.per-email:10}")
+    private int loginPerEmail;
+
+    @Value("${security.rate-limit.register.per-ip:10}")
+    private int registerPerIp;
+
+    @Value("${security.rate-limit.verify-otp.per-ip:20}")
+    private int verifyOtpPerIp;
+
+    @Value("${security.rate-limit.verify-otp.per-email:10}")
+    private int verifyOtpPerEmail;
+
+    @Value("${security.rate-limit.resend-otp.per-ip:5}")
+    private int resendOtpPerIp;
+
+    @Value("${security.rate-limit.resend-otp.per-email:3}")
+    private int resendOtpPerEmail;
+
+    @Value("${security.rate-limit.refresh-token.per-ip:60}")
+    private int refreshTokenPerIp;
+
+    private record Budget(String endpoint, int perIp, int perEmail) {
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || budgetFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        Budget budget = budgetFor(request);
+        Duration period = Duration.ofSeconds(periodSeconds);
+        String clientIp = request.getRemoteAddr();
+
+        long waitMs = rateLimiter.tryConsume(budget.endpoint() + ":ip:" + clientIp, budget.perIp(), period);
+
+        if (waitMs == 0 && budget.perEmail() > 0) {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                tooLarge(response);
+                return;
+            }
+            CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+            if (cachedRequest.body.length > MAX_BODY_BYTES) {
+                // Chunked body without a Content-Length
+                tooLarge(response);
+                return;
+            }
+            request = cachedRequest;
+            String email = extractEmail(cachedRequest);
+            if (email != null) {
+                waitMs = rateLimiter.tryConsume(budget.endpoint() + ":email:" + EmailNormalizer.normalize(email),
+                        budget.perEmail(), period);
+            }
+        }
+
+        if (waitMs > 0) {
+            log.warn("Rate limit exceeded on {} from {}", budget.endpoint(), clientIp);
+            reject(response, waitMs);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Budget budgetFor(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return switch (path) {
+            case "/api/auth/login" -> new Budget("login", loginPerIp, loginPerEmail);
+            case "/api/auth/register" -> new Budget("register", registerPerIp, 0);
+            case "/api/auth/verify-otp" -> new Budget("verify-otp", verifyOtpPerIp, verifyOtpPerEmail);
+            case "/api/auth/resend-otp" -> new Budget("resend-otp", resendOtpPerIp, resendOtpPerEmail);
+            case "/api/auth/refresh-token" -> new Budget("refresh-token", refreshTokenPerIp, 0);
+            default -> null;
+        };
+    }
+
+    /**
+     * Email from the query string (resend-otp) or the JSON body (login, verify-otp)
+     */
+    private String extractEmail(CachedBodyRequest request) {
+        String email = request.getParameter("email");
+        if (email != null || request.body.length == 0) {
+            return email;
+        }
+        try {
+            return objectMapper.readTree(request.body).path("email").textValue();
+        } catch (IOException e) {
+            // Malformed body; let the controller produce the validation error
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitMs) throws IOException {
+        UserResponse body = new UserResponse();
+        body.setMessage("Too many requests. Please try again later.");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(toJson(body));
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        UserResponse body = new UserResponse();
+        body.setMessage("Request body too large.");
+
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(toJson(body));
+    }
+
+    private String toJson(UserResponse body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            return "{\"message\":\"" + body.getMessage() + "\"}";
+        }
+    }
+
+    /**
+     * Reads the (small) body once so it can be inspected here and read again by the controller.
+     * Reads one byte past the limit so an oversized body is detected rather than truncated.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,26 +1,129 @@
 package com.erp.valid.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 14;
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    // Algorithm for new hashes: bcrypt, argon2 or pbkdf2
+    @Value("${security.password.encoder:bcrypt}")
+    private String encoderId;
+
+    // 0 = calibrate at startup against target-ms (opt-in: it runs a timing loop on every context start)
+    @Value("${security.password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.bcrypt.target-ms:100}")
+    private long bcryptTargetMs;
+
+    @Value("${security.password.argon2.memory-kb:19456}")
+    private int argon2MemoryKb;
+
+    @Value("${security.password.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${security.password.argon2.parallelism:1}")
+    private int argon2Parallelism;
+
+    @Value("${security.password.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+
+    @Value("${security.password.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int hashPoolSize;
+
+    @Value("${security.password.queue-capacity:50}")
+    private int hashQueueCapacity;
+
+    @Value("${security.password.timeout-ms:2000}")
+    private long hashTimeoutMs;
 
+    /**
+     * New hashes are written as {id}hash with the configured algorithm and cost.
+     * Hashes with another id or a lower cost report upgradeEncoding() = true and are
+     * rehashed on the next successful login. Bare hashes from before the {id} prefix are BCrypt.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int strength = bcryptStrength > 0 ? bcryptStrength
+                : "bcrypt".equals(encoderId) ? calibrateBCryptStrength(bcryptTargetMs)
+                : MIN_BCRYPT_STRENGTH;
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("argon2", new Argon2PasswordEncoder(
+                16, 32, argon2Parallelism, argon2MemoryKb, argon2Iterations));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder(
+                "", 16, pbkdf2Iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("Hashing new passwords with {} (BCrypt strength {}) on a pool of {} threads (queue {})",
+                encoderId, strength, hashPoolSize, hashQueueCapacity);
+
+        return new BoundedPasswordEncoder(
+                delegating,
+                hashPoolSize,
+                hashQueueCapacity,
+                hashTimeoutMs,
+                meterRegistry
+        );
+    }
+
+    /**
+     * Pick the highest strength whose hash time stays within the target on this hardware.
+     * Each step doubles the cost; never goes below the BCrypt default of 10.
+     */
+    private static int calibrateBCryptStrength(long targetMs) {
+        // Warm up so the first measurement is not dominated by interpreted code
+        BCryptPasswordEncoder warmUp = new BCryptPasswordEncoder(6);
+        for (int i = 0; i < 5; i++) {
+            warmUp.encode("calibration");
+        }
+
+        int strength = MIN_BCRYPT_STRENGTH;
+        long elapsedMs = timeEncode(strength);
+        while (strength < MAX_BCRYPT_STRENGTH && elapsedMs * 2 <= targetMs) {
+            strength++;
+            elapsedMs = timeEncode(strength);
+        }
+        log.info("BCrypt calibrated to strength {} ({} ms per hash, target {} ms)", strength, elapsedMs, targetMs);
+        return strength;
+    }
+
+    private static long timeEncode(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode("calibration");
+        return (System.nanoTime() - start) / 1_000_000;
     }
 
     @Bean
@@ -34,9 +137,18 @@ public class SecurityConfig {
                         // H2 Console
                         .requestMatchers("/h2-console/**").permitAll()
 
+                        // Session management and logout act on the caller's own tokens
+                        .requestMatchers("/api/auth/sessions/**", "/api/auth/logout", "/api/auth/logout-all").authenticated()
+
                         // Authentication Endpoints
                         .requestMatchers("/api/auth/**").permitAll()
 
+                        // Public token verification keys
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+
+                        // Health checks and Prometheus scraping; served only on management.server.port
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
                         // Swagger/OpenAPI Endpoints
                         .requestMatchers(
                                 "/v3/api-docs/**",
@@ -50,7 +162,8 @@ public class SecurityConfig {
                 .headers(headers -> headers
                         .frameOptions(frame -> frame.sameOrigin())
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,47 +1,60 @@
 package com.erp.valid.controller;
 
 import com.erp.valid.dto.*;
+import com.erp.valid.service.AuthMetrics;
 import com.erp.valid.service.UserService;
+import com.erp.valid.util.JwtPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
     private final UserService userService;
+    private final AuthMetrics authMetrics;
 
     @PostMapping("/register")
     public ResponseEntity<UserResponse> register(@Valid @RequestBody RegisterRequest request) throws Exception {
-        UserResponse response = userService.registerUser(request);
+        UserResponse response = authMetrics.record("register", () -> userService.registerUser(request));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/verify-otp")
-    public ResponseEntity<AuthResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
-        AuthResponse response = userService.verifyOtpAndGenerateToken(request);
+    public ResponseEntity<AuthResponse> verifyOtp(@Valid @RequestBody VerifyOtpRequest request,
+                                                  @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+        AuthResponse response = authMetrics.record("verify_otp",
+                () -> userService.verifyOtpAndGenerateToken(request, userAgent));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/resend-otp")
     public ResponseEntity<UserResponse> resendOtp(@RequestParam String email) {
-        UserResponse response = userService.resendOtp(email);
+        UserResponse response = authMetrics.record("resend_otp", () -> userService.resendOtp(email));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = userService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
+        AuthResponse response = authMetrics.record("login", () -> userService.login(request,
+                httpRequest.getRemoteAddr(), httpRequest.getHeader(HttpHeaders.USER_AGENT)));
         return ResponseEntity.ok(response);
     }
     // New Endpoint for Refresh Token
     @PostMapping("/refresh-token")
     public ResponseEntity<TokenRefreshResponse> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
-        TokenRefreshResponse response = userService.refreshAccessToken(request);
+        TokenRefreshResponse response = authMetrics.record("refresh_token",
+                () -> userService.refreshAccessToken(request));
         return ResponseEntity.ok(response);
     }
     @GetMapping("/profile")
@@ -51,9 +64,32 @@ public class AuthController {
         return email;
     }
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(Authentication auth) {
-        // Assume auth.getName() is the email, use it to find the user/ID
-        userService.logout(auth.getName());
-        return ResponseEntity.ok("Logged out successfully. Token removed.");
+    public ResponseEntity<?> logout(@AuthenticationPrincipal JwtPrincipal principal) {
+        authMetrics.record("logout", () -> userService.logout(principal));
+        return ResponseEntity.ok("Logged out successfully. Token revoked.");
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@AuthenticationPrincipal JwtPrincipal principal) {
+        authMetrics.record("logout_all", () -> userService.logoutAll(principal.userId()));
+        return ResponseEntity.ok("Logged out from all devices.");
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionResponse>> listSessions(@AuthenticationPrincipal JwtPrincipal principal) {
+        return ResponseEntity.ok(userService.listSessions(principal.userId()));
+    }
+
+    @DeleteMapping("/sessions/{sessionId}")
+    public ResponseEntity<?> revokeSession(@AuthenticationPrincipal JwtPrincipal principal,
+                                           @PathVariable Long sessionId) {
+        userService.revokeSession(principal.userId(), sessionId);
+        return ResponseEntity.ok("Session revoked.");
+    }
+
+    @DeleteMapping("/sessions")
+    public ResponseEntity<?> revokeAllSessions(@AuthenticationPrincipal JwtPrincipal principal) {
+        userService.revokeAllSessions(principal.userId());
+        return ResponseEntity.ok("All sessions revoked.");
     }
-}
\ No newline at end of file
+}
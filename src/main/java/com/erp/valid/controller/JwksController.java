@@ -0,0 +1,33 @@
+package com.erp.valid.controller;
+
+import com.erp.valid.util.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    // JwtKeyRing holds new keys back for at least this long before signing with them
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    /**
+     * Public verification keys so resource servers can validate access tokens locally
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
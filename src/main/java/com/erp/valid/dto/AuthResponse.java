@@ -27,6 +27,13 @@ public class AuthResponse {
         this.refreshToken = refreshToken;
     }
 
-    public AuthResponse(String token, String refreshToken, Long id, String username, String email, String name, String refreshToken1) {
+    public AuthResponse(String token, String refreshToken, Long userId, String username, String email, String role, String message) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.message = message;
     }
 }
\ No newline at end of file
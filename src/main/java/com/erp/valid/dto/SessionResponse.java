@@ -0,0 +1,18 @@
+package com.erp.valid.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionResponse {
+    private Long id;
+    private String userAgent;
+    private Instant createdAt;
+    private Instant lastUsedAt;
+    private Instant expiresAt;
+}
@@ -0,0 +1,56 @@
+package com.erp.valid.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Outbound email queued in the same transaction as the change that triggered it.
+ * Rows are deleted once delivered; undeliverable ones are kept as DEAD for inspection.
+ * Secrets such as OTP codes are never part of the body: it holds {name} placeholders, the values
+ * live in params until the row is delivered or dead-lettered, and are substituted at send time.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+public class EmailOutbox {
+
+    public enum Status { PENDING, DEAD }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String body;
+
+    @Convert(converter = StringMapConverter.class)
+    @Column(length = 1000)
+    private Map<String, String> params;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -2,9 +2,23 @@ package com.erp.valid.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
 import java.time.Instant;
+import java.util.UUID;
 
+/**
+ * One row per token family, i.e. one login session; a user may have several (one per device).
+ * Rotation overwrites the row in place; the rotated-away digests go to SupersededRefreshToken so a replayed token can be recognised.
+ * Tokens are never stored in plaintext.
+ */
 @Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_lookup_key", columnList = "lookup_key", unique = true),
+        @Index(name = "idx_refresh_token_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_token_expiry_date", columnList = "expiry_date")
+})
 @Data
 public class RefreshToken {
 
@@ -12,13 +26,30 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
 
-    @Column(nullable = false)
+    // First 8 bytes of the SHA-256 digest; compact indexed lookup key
+    @Column(name = "lookup_key", nullable = false)
+    private Long lookupKey;
+
+    // Full SHA-256 digest, compared in constant time after the lookup
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
-}
\ No newline at end of file
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant lastUsedAt;
+
+    private String userAgent;
+}
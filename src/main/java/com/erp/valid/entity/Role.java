@@ -2,6 +2,8 @@ package com.erp.valid.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -14,12 +16,15 @@ public class Role {
     private Long id;
     private String name;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy so user loads do not join permissions; request authorization reads RoleAuthorityService instead
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
             inverseJoinColumns = @JoinColumn(name = "permission_id")
     )
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<Permission> permissions = new HashSet<>();
 }
 
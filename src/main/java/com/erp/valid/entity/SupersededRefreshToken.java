@@ -0,0 +1,46 @@
+package com.erp.valid.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Digest of a refresh token that has been rotated away, kept for every rotation of its family.
+ * Presenting any of them again means the family was copied at some point, not only at the last rotation.
+ * Rows are only needed until expiresAt; after that the token is rejected anyway.
+ */
+@Entity
+@Table(name = "refresh_token_superseded", indexes = {
+        @Index(name = "idx_refresh_token_superseded_lookup_key", columnList = "lookup_key"),
+        @Index(name = "idx_refresh_token_superseded_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class SupersededRefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "lookup_key", nullable = false)
+    private Long lookupKey;
+
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public SupersededRefreshToken(UUID familyId, Long lookupKey, byte[] tokenHash, Instant expiresAt) {
+        this.familyId = familyId;
+        this.lookupKey = lookupKey;
+        this.tokenHash = tokenHash;
+        this.expiresAt = expiresAt;
+    }
+}
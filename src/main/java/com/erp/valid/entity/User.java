@@ -1,31 +1,46 @@
 package com.erp.valid.entity;
 
+import com.erp.valid.util.EmailNormalizer;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username"),
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email_normalized")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
+    // Registration relies on these to reject duplicates that race past its pre-check, so they are named
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    // Lowercased copy of email; every lookup and the unique constraint use this column
+    @Column(name = "email_normalized", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
 
     @Column(nullable = false)
     private String password; // stored as BCrypt hash
@@ -56,6 +71,18 @@ public class User {
 
     private LocalDateTime lockTime;
 
+    // Embedded in every access token; bumping it invalidates all tokens issued before
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+
+    /**
+     * Set the email as typed and keep the normalized copy in step
+     */
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalized = EmailNormalizer.normalize(email);
+    }
+
     /**
      * Reset failed login attempts to 0
      */
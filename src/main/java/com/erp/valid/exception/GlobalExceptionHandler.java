@@ -1,6 +1,7 @@
 package com.erp.valid.exception;
 
 import com.erp.valid.dto.UserResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -30,6 +31,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    // Handle ServiceUnavailableException (503 Service Unavailable)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<UserResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+        UserResponse response = new UserResponse();
+        response.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     // Handle Validation Errors (400 Bad Request)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(
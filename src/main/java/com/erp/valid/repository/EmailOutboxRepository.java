@@ -0,0 +1,24 @@
+package com.erp.valid.repository;
+
+import com.erp.valid.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Due rows locked FOR UPDATE SKIP LOCKED, so concurrent dispatchers claim disjoint batches.
+     * Native because Hibernate's H2 dialect does not render SKIP LOCKED; PostgreSQL and H2 both accept this SQL.
+     */
+    @Query(value = "select * from email_outbox where status = 'PENDING' and next_attempt_at <= :now " +
+            "order by next_attempt_at limit :limit for update skip locked", nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    long countByStatus(EmailOutbox.Status status);
+}
@@ -1,14 +1,71 @@
 package com.erp.valid.repository;
 
 import com.erp.valid.entity.RefreshToken;
-import com.erp.valid.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    int deleteByUser(User user);
-}
\ No newline at end of file
+    Optional<RefreshToken> findByLookupKey(Long lookupKey);
+
+    List<RefreshToken> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    @Query("select r.id from RefreshToken r where r.user.id = :userId order by r.createdAt desc, r.id desc")
+    List<Long> findSessionIdsNewestFirst(@Param("userId") Long userId);
+
+    /**
+     * Rotate only if the row still holds the presented token; returns 0 if another request rotated it first
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.lookupKey = :newLookupKey, r.tokenHash = :newTokenHash, " +
+            "r.expiryDate = :expiryDate, r.lastUsedAt = :now " +
+            "where r.id = :id and r.lookupKey = :currentLookupKey")
+    int rotate(@Param("id") Long id,
+               @Param("currentLookupKey") Long currentLookupKey,
+               @Param("newLookupKey") Long newLookupKey,
+               @Param("newTokenHash") byte[] newTokenHash,
+               @Param("expiryDate") Instant expiryDate,
+               @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.familyId = :familyId and r.user.id = :userId")
+    int deleteByFamilyIdAndUserId(@Param("familyId") UUID familyId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.id = :id and r.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("select r.id from RefreshToken r where r.expiryDate < :now order by r.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Delete one purge batch in its own short transaction. Rows rotated since they were
+     * selected have a new expiry and are left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken r where r.id in :ids and r.expiryDate < :now")
+    int deleteExpiredByIdIn(@Param("ids") List<Long> ids, @Param("now") Instant now);
+}
@@ -2,11 +2,17 @@ package com.erp.valid.repository;
 
 import com.erp.valid.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
     Optional<Role> findByName(String name);
+
+    // Every role with its permissions in one statement, for the authority map
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
 }
\ No newline at end of file
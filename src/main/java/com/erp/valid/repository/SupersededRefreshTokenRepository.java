@@ -0,0 +1,47 @@
+package com.erp.valid.repository;
+
+import com.erp.valid.entity.SupersededRefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SupersededRefreshTokenRepository extends JpaRepository<SupersededRefreshToken, Long> {
+    List<SupersededRefreshToken> findByLookupKey(Long lookupKey);
+
+    @Modifying
+    @Query("delete from SupersededRefreshToken s where s.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    /**
+     * Digests of the given sessions; run before the sessions are deleted, as the families are looked up through them
+     */
+    @Modifying
+    @Query("delete from SupersededRefreshToken s where s.familyId in " +
+            "(select r.familyId from RefreshToken r where r.id in :sessionIds and r.user.id = :userId)")
+    int deleteBySessionIds(@Param("sessionIds") List<Long> sessionIds, @Param("userId") Long userId);
+
+    /**
+     * Digests of every session of the user; run before the sessions are deleted
+     */
+    @Modifying
+    @Query("delete from SupersededRefreshToken s where s.familyId in " +
+            "(select r.familyId from RefreshToken r where r.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Query("select s.id from SupersededRefreshToken s where s.expiresAt < :now order by s.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from SupersededRefreshToken s where s.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
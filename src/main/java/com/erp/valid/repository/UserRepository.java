@@ -1,13 +1,38 @@
 package com.erp.valid.repository;
 
 import com.erp.valid.entity.User;
+import com.erp.valid.util.EmailNormalizer;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    Optional<User> findByEmail(String email);
+
+    // Fetch the role in the same statement instead of a secondary select
+    @EntityGraph(attributePaths = "role")
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Case-insensitive lookup that stays an index seek on the unique email_normalized column
+     */
+    default Optional<User> findByEmail(String email) {
+        return findByEmailNormalized(EmailNormalizer.normalize(email));
+    }
+
+    /**
+     * Which unique keys are already taken ("username", "email"), in one statement over both unique indexes
+     */
+    @Query("select case when u.username = :username then 'username' else 'email' end from User u " +
+            "where u.username = :username or u.emailNormalized = :emailNormalized")
+    List<String> findTakenKeys(@Param("username") String username, @Param("emailNormalized") String emailNormalized);
+
+    @Query("select u.tokenVersion from User u where u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
 }
\ No newline at end of file
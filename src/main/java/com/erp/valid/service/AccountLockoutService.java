@@ -2,6 +2,7 @@ package com.erp.valid.service;
 
 import com.erp.valid.entity.User;
 import com.erp.valid.repository.UserRepository;
+import com.erp.valid.util.EmailNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,50 +18,82 @@ import java.time.LocalDateTime;
 public class AccountLockoutService {
 
     private final UserRepository userRepository;
+    private final LoginAttemptStore attemptStore;
+    private final TokenVersionService tokenVersionService;
+    private final AuthMetrics authMetrics;
 
     @Value("${security.lockout.max-attempts:5}")
     private int maxFailedAttempts;
 
+    @Value("${security.lockout.max-attempts-per-ip:50}")
+    private int maxFailedAttemptsPerIp;
+
     @Value("${security.lockout.duration-minutes:30}")
     private int lockDurationMinutes;
 
     /**
-     * Handle failed login attempt
+     * Handle failed login attempt.
+     * Failures are counted in the attempt store; the user row is only written when the
+     * account gets locked, which also revokes the user's outstanding access tokens. Returns the attempts remaining before lockout.
      */
     @Transactional
-    public void handleFailedLogin(User user) {
-        User managedUser = userRepository.findById(user.getId()).orElseThrow();
-
-        managedUser.incrementFailedAttempts();
-        log.warn("Failed login attempt #{} for user: {}",
-                user.getFailedLoginAttempts(), managedUser.getEmail());
-
-
-        if (managedUser.getFailedLoginAttempts() >= maxFailedAttempts) {
-            managedUser.lockAccount();
+    public int handleFailedLogin(User user, String clientIp) {
+        int failures = attemptStore.recordFailure(emailKey(user.getEmail()));
+        handleFailedLogin(clientIp);
+        log.warn("Failed login attempt #{} for user: {}", failures, user.getEmail());
+
+        if (failures >= maxFailedAttempts) {
+            user.setFailedLoginAttempts(failures);
+            user.lockAccount();
+            tokenVersionService.revokeAll(user);
+            userRepository.save(user);
+            authMetrics.lockout("account_locked");
+            attemptStore.reset(emailKey(user.getEmail()));
 
             log.warn("Account locked for user: {} after {} failed attempts",
-                    managedUser.getEmail(), maxFailedAttempts);
+                    user.getEmail(), maxFailedAttempts);
+            return 0;
         }
-        userRepository.saveAndFlush(managedUser);
+        return maxFailedAttempts - failures;
     }
 
     /**
-     * Handle successful login
+     * Count a failed login against the client address only, e.g. for an email with no account,
+     * so credential stuffing over unknown emails still ends in isIpBlocked
+     */
+    public void handleFailedLogin(String clientIp) {
+        if (clientIp != null) {
+            attemptStore.recordFailure(ipKey(clientIp));
+        }
+    }
+
+    /**
+     * Handle successful login.
+     * Only dirties the user when a persisted lock has to be cleared.
      */
-    @Transactional
     public void handleSuccessfulLogin(User user) {
+        attemptStore.reset(emailKey(user.getEmail()));
         if (user.getFailedLoginAttempts() > 0 || user.isAccountLocked()) {
             log.info("Resetting failed attempts for user: {}", user.getEmail());
             user.resetFailedAttempts();
-            userRepository.save(user);
         }
     }
 
     /**
-     * Check if account is locked and handle lock expiration
+     * Too many failures from one client address across all accounts (credential stuffing)
+     */
+    public boolean isIpBlocked(String clientIp) {
+        boolean blocked = clientIp != null && attemptStore.failureCount(ipKey(clientIp)) >= maxFailedAttemptsPerIp;
+        if (blocked) {
+            authMetrics.lockout("ip_blocked");
+        }
+        return blocked;
+    }
+
+    /**
+     * Check if account is locked and handle lock expiration.
+     * An expired lock is cleared on the user only; the caller writes it with the successful login.
      */
-    @Transactional
     public boolean isAccountLocked(User user) {
         if (!user.isAccountLocked()) {
             return false;
@@ -70,7 +103,6 @@ public class AccountLockoutService {
         if (user.isLockExpired(lockDurationMinutes)) {
             log.info("Lock expired for user: {}. Unlocking account.", user.getEmail());
             user.resetFailedAttempts();
-            userRepository.save(user);
             return false;
         }
 
@@ -91,13 +123,6 @@ public class AccountLockoutService {
         return Math.max(0, duration.toMinutes());
     }
 
-    /**
-     * Get remaining failed attempts before lockout
-     */
-    public int getRemainingAttempts(User user) {
-        return Math.max(0, maxFailedAttempts - user.getFailedLoginAttempts());
-    }
-
     /**
      * Manually unlock account (admin function)
      */
@@ -108,5 +133,21 @@ public class AccountLockoutService {
             user.resetFailedAttempts();
             userRepository.save(user);
         });
+        attemptStore.reset(emailKey(email));
+    }
+
+    /**
+     * Clear the failures counted against a client address (admin function)
+     */
+    public void unblockIp(String clientIp) {
+        attemptStore.reset(ipKey(clientIp));
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + EmailNormalizer.normalize(email);
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
     }
 }
\ No newline at end of file
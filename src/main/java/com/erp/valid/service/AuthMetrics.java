@@ -0,0 +1,85 @@
+package com.erp.valid.service;
+
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the authentication flows. Tag values are fixed sets, so series counts stay bounded.
+ * Meters are registered once per operation or event and reused, keeping registry lookups off the request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthMetrics {
+
+    private enum Outcome { SUCCESS, REJECTED, UNAVAILABLE, ERROR }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<Outcome, Timer>> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> lockoutCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Time one auth operation, tagged with its outcome:
+     * success, rejected (business rule, e.g. bad credentials), unavailable (overload) or error.
+     */
+    public <T> T record(String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = action.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (ConflictException e) {
+            outcome = Outcome.REJECTED;
+            throw e;
+        } catch (ServiceUnavailableException e) {
+            outcome = Outcome.UNAVAILABLE;
+            throw e;
+        } finally {
+            operationTimers.computeIfAbsent(operation, this::registerOperation)
+                    .get(outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(String operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Lockout events: account_locked or ip_blocked
+     */
+    public void lockout(String event) {
+        lockoutCounters.computeIfAbsent(event, key -> Counter.builder("auth.lockout")
+                        .description("Accounts locked and requests refused from blocked addresses")
+                        .tag("event", key)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private Map<Outcome, Timer> registerOperation(String operation) {
+        Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            timers.put(outcome, Timer.builder("auth.operation")
+                    .description("Time spent in an authentication operation")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        return timers;
+    }
+}
@@ -0,0 +1,219 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.EmailOutbox;
+import com.erp.valid.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox.
+ *
+ * Due rows are sent in batches through a single {@code send(...)} call, which reuses one SMTP
+ * connection for the whole batch. Delivered rows are deleted. Failed rows are retried with
+ * exponential backoff and marked DEAD after max-attempts; a DEAD row loses its params, so no
+ * OTP outlives the delivery attempt in the database.
+ *
+ * Several nodes can dispatch from a shared database. Each batch is claimed in a short transaction:
+ * due rows are selected FOR UPDATE SKIP LOCKED and their next attempt is pushed out by claim-timeout-ms,
+ * so other dispatchers skip them while they are sent. A node that dies mid-batch leaves its rows to be
+ * retried once the claim expires.
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+
+    @Value("${email.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${email.from:no-reply@localhost}")
+    private String from;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.claim-timeout-ms:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry.initial-delay-ms:5000}")
+    private long initialDelayMs;
+
+    @Value("${email.outbox.retry.max-delay-ms:600000}")
+    private long maxDelayMs;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository, JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.sentCounter = Counter.builder("email.outbox.sent")
+                .description("Emails delivered from the outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed")
+                .description("Delivery attempts that failed and will be retried")
+                .register(meterRegistry);
+        this.deadCounter = Counter.builder("email.outbox.dead")
+                .description("Emails given up on after max-attempts")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Time to send one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", outboxRepository,
+                        repository -> repository.countByStatus(EmailOutbox.Status.PENDING))
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${email.outbox.poll-interval-ms:1000}",
+            fixedDelayString = "${email.outbox.poll-interval-ms:1000}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Send everything that is due, batch by batch. Returns the number of emails delivered.
+     */
+    public int dispatch() {
+        int delivered = 0;
+        while (true) {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                return delivered;
+            }
+            delivered += batchTimer.record(() -> sendBatch(batch));
+            if (batch.size() < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    /**
+     * Lock the next due rows, skipping those another dispatcher holds, and push their next attempt
+     * out by the claim timeout; the claim is committed before anything is sent.
+     */
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<EmailOutbox> batch = outboxRepository.lockDue(now, batchSize);
+            Instant claimedUntil = now.plusMillis(claimTimeoutMs);
+            batch.forEach(email -> email.setNextAttemptAt(claimedUntil));
+            return batch;
+        });
+    }
+
+    private int sendBatch(List<EmailOutbox> batch) {
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            byMessage.put(toMessage(email), email);
+        }
+
+        Map<Object, Exception> failures;
+        try {
+            mailSender.send(byMessage.keySet().toArray(SimpleMailMessage[]::new));
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(byMessage, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(byMessage, e);
+        }
+
+        List<Long> deliveredIds = new ArrayList<>();
+        List<EmailOutbox> retries = new ArrayList<>();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                deliveredIds.add(entry.getValue().getId());
+            } else {
+                retries.add(scheduleRetry(entry.getValue(), failure));
+            }
+        }
+
+        outboxRepository.deleteAllByIdInBatch(deliveredIds);
+        outboxRepository.saveAll(retries);
+        sentCounter.increment(deliveredIds.size());
+        if (!retries.isEmpty()) {
+            log.warn("Email batch: {} delivered, {} failed", deliveredIds.size(), retries.size());
+        }
+        return deliveredIds.size();
+    }
+
+    private EmailOutbox scheduleRetry(EmailOutbox email, Exception failure) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(failure.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.DEAD);
+            email.setParams(null);
+            deadCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), attempts);
+        } else {
+            long delayMs = Math.min(maxDelayMs, initialDelayMs << Math.min(attempts - 1, 30));
+            email.setNextAttemptAt(Instant.now().plusMillis(delayMs));
+            failedCounter.increment();
+        }
+        return email;
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(render(email));
+        return message;
+    }
+
+    private static String render(EmailOutbox email) {
+        String body = email.getBody();
+        if (email.getParams() != null) {
+            for (Map.Entry<String, String> param : email.getParams().entrySet()) {
+                body = body.replace("{" + param.getKey() + "}", param.getValue());
+            }
+        }
+        return body;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, EmailOutbox> byMessage, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        byMessage.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -1,52 +1,60 @@
 package com.erp.valid.service;
 
+import com.erp.valid.entity.EmailOutbox;
+import com.erp.valid.repository.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Queues outbound email in the outbox table, inside the caller's transaction.
+ * Nothing is sent here; {@link EmailOutboxDispatcher} delivers the queue in batches.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
 
-    @Async("taskExecutor")
+    @Transactional
     public void sendOtpEmail(String toEmail, String otp) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("email@gmail.com");
-            message.setTo(toEmail);
-            message.setSubject("Email Verification - OTP Code");
-            message.setText("Your OTP code is: " + otp +
-                    "\n\nThis code will expire in 5 minutes." +
-                    "\n\nIf you didn't request this, please ignore this email.");
-
-            mailSender.send(message);
-            log.info("OTP email sent successfully to: {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send OTP email to: {}", toEmail, e);
-        }
+        enqueue(toEmail,
+                "Email Verification - OTP Code",
+                "Your OTP code is: {otp}" +
+                        "\n\nThis code will expire in 5 minutes." +
+                        "\n\nIf you didn't request this, please ignore this email.",
+                Map.of("otp", otp));
+        log.info("OTP email queued for: {}", toEmail);
     }
 
-    @Async("taskExecutor")
+    @Transactional
     public void sendWelcomeEmail(String toEmail, String username) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("your-email@gmail.com");
-            message.setTo(toEmail);
-            message.setSubject("Welcome to AUTH System!");
-            message.setText("Hello " + username +
-                    ",\n\nYour account has been successfully verified!" +
-                    "\n\nWelcome aboard!");
+        enqueue(toEmail,
+                "Welcome to AUTH System!",
+                "Hello " + username +
+                        ",\n\nYour account has been successfully verified!" +
+                        "\n\nWelcome aboard!",
+                null);
+        log.info("Welcome email queued for: {}", toEmail);
+    }
 
-            mailSender.send(message);
-            log.info("Welcome email sent successfully to: {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send welcome email to: {}", toEmail, e);
-        }
+    /**
+     * params fill the body's {name} placeholders at send time; pass secrets here, never in the body
+     */
+    private void enqueue(String recipient, String subject, String body, Map<String, String> params) {
+        Instant now = Instant.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setParams(params);
+        email.setCreatedAt(now);
+        email.setNextAttemptAt(now);
+        outboxRepository.save(email);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.erp.valid.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Single-node attempt store.
+ *
+ * Each key keeps a sliding-window counter (current and previous fixed window, the previous one
+ * weighted by how much of it still overlaps the sliding window), so memory per key is constant.
+ * Updates are guarded by a fixed set of lock stripes rather than one global lock.
+ * Keys idle for two windows are evicted.
+ */
+@Service
+@ConditionalOnProperty(name = "security.lockout.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+    private static final int STRIPES = 64;
+
+    private final long windowMs;
+    private final Object[] locks = new Object[STRIPES];
+    private final Cache<String, Window> windows;
+
+    public InMemoryLoginAttemptStore(@Value("${security.lockout.window-minutes:15}") long windowMinutes) {
+        this.windowMs = Duration.ofMinutes(windowMinutes).toMillis();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.windows = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMillis(windowMs * 2))
+                .maximumSize(1_000_000)
+                .build();
+    }
+
+    @Override
+    public int recordFailure(String key) {
+        Window window = windows.get(key, k -> new Window());
+        synchronized (lockFor(key)) {
+            long now = System.currentTimeMillis();
+            window.roll(now, windowMs);
+            window.current++;
+            return window.count(now, windowMs);
+        }
+    }
+
+    @Override
+    public int failureCount(String key) {
+        Window window = windows.getIfPresent(key);
+        if (window == null) {
+            return 0;
+        }
+        synchronized (lockFor(key)) {
+            long now = System.currentTimeMillis();
+            window.roll(now, windowMs);
+            return window.count(now, windowMs);
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.invalidate(key);
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    /**
+     * Mutable counter state; only touched while holding the key's stripe lock
+     */
+    private static final class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        void roll(long now, long windowMs) {
+            long elapsedWindows = (now - start) / windowMs;
+            if (elapsedWindows == 1) {
+                previous = current;
+                current = 0;
+                start += windowMs;
+            } else if (elapsedWindows > 1) {
+                previous = 0;
+                current = 0;
+                start = now - (now % windowMs);
+            }
+        }
+
+        int count(long now, long windowMs) {
+            double previousWeight = 1.0 - (double) (now - start) / windowMs;
+            return current + (int) (previous * Math.max(0, previousWeight));
+        }
+    }
+}
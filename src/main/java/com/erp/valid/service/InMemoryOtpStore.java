@@ -0,0 +1,76 @@
+package com.erp.valid.service;
+
+import com.erp.valid.util.OtpUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+/**
+ * Single-node OTP store backed by Caffeine; no Redis needed.
+ * Only the keyed digest of each code is kept. Verify-and-consume runs inside {@code compute}
+ * on the entry, which makes it atomic per email.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryOtpStore implements OtpStore {
+
+    private record Entry(byte[] digest, int attempts) {
+    }
+
+    private final Cache<String, Entry> otpCache;
+    private final byte[] secret;
+    private final int maxAttempts;
+
+    public InMemoryOtpStore(@Value("${otp.secret:${jwt.secret}}") String secret,
+                            @Value("${otp.expiration.minutes:1}") int otpExpirationMinutes,
+                            @Value("${otp.max-attempts:5}") int maxAttempts,
+                            @Value("${otp.cache.max-size:10000}") long maxSize) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.maxAttempts = maxAttempts;
+        this.otpCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(otpExpirationMinutes))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void store(String email, String otp) {
+        otpCache.put(OtpStore.key(email), new Entry(OtpUtil.digest(secret, email, otp), 0));
+        log.info("OTP stored in local cache for email: {}", email);
+    }
+
+    @Override
+    public VerifyResult verifyAndConsume(String email, String otp) {
+        byte[] presented = OtpUtil.digest(secret, email, otp);
+        VerifyResult[] result = {VerifyResult.EXPIRED};
+        otpCache.asMap().computeIfPresent(OtpStore.key(email), (key, entry) -> {
+            if (MessageDigest.isEqual(entry.digest(), presented)) {
+                result[0] = VerifyResult.VALID;
+                return null;
+            }
+            int attempts = entry.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                result[0] = VerifyResult.TOO_MANY_ATTEMPTS;
+                return null;
+            }
+            result[0] = VerifyResult.INVALID;
+            return new Entry(entry.digest(), attempts);
+        });
+        log.info("OTP verification for email: {} -> {}", email, result[0]);
+        return result[0];
+    }
+
+    public CacheStats stats() {
+        return otpCache.stats();
+    }
+}
@@ -0,0 +1,53 @@
+package com.erp.valid.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-node rate limiter.
+ *
+ * Each bucket is one AtomicLong holding the GCRA "theoretical arrival time", which is equivalent
+ * to a token bucket but updates with a single CAS. A bucket idle for a full period is full again,
+ * so evicting it loses nothing.
+ */
+@Service
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public InMemoryRateLimiter(@Value("${security.rate-limit.period-seconds:60}") long periodSeconds) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(periodSeconds))
+                .maximumSize(1_000_000)
+                .build();
+    }
+
+    @Override
+    public long tryConsume(String key, int capacity, Duration period) {
+        long intervalNanos = period.toNanos() / capacity;
+        long burstNanos = period.toNanos();
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long start = current == Long.MIN_VALUE ? now : Math.max(current, now);
+            long next = start + intervalNanos;
+
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return Math.max(1, Duration.ofNanos(excess).toMillis());
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.erp.valid.service;
+
+/**
+ * Counts failed login attempts per key (email or client IP) over a sliding window.
+ * Only the final lock decision is written to the users table.
+ */
+public interface LoginAttemptStore {
+
+    /**
+     * Record a failure and return the number of failures in the current window, including this one
+     */
+    int recordFailure(String key);
+
+    /**
+     * Number of failures in the current window
+     */
+    int failureCount(String key);
+
+    /**
+     * Forget all failures for the key (e.g. after a successful login)
+     */
+    void reset(String key);
+}
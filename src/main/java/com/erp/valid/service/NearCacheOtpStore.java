@@ -0,0 +1,56 @@
+package com.erp.valid.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local Caffeine store in front of Redis.
+ *
+ * OTPs are written to both. An OTP issued on this node is verified locally with no network hop,
+ * and the outcome is written through to Redis. An OTP not held locally (issued on another node,
+ * or this node restarted) is verified against Redis. This assumes requests for one email are
+ * normally routed to the same node. Use the redis store when that cannot be guaranteed, because
+ * only Redis makes single use hold across nodes.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "near")
+@Slf4j
+public class NearCacheOtpStore implements OtpStore {
+
+    private final InMemoryOtpStore local;
+    private final RedisOtpStore remote;
+
+    public NearCacheOtpStore(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                             @Value("${otp.secret:${jwt.secret}}") String secret,
+                             @Value("${otp.expiration.minutes:1}") int otpExpirationMinutes,
+                             @Value("${otp.max-attempts:5}") int maxAttempts,
+                             @Value("${otp.cache.max-size:10000}") long maxSize,
+                             MeterRegistry meterRegistry) {
+        this.local = new InMemoryOtpStore(secret, otpExpirationMinutes, maxAttempts, maxSize);
+        this.remote = new RedisOtpStore(binaryRedisTemplate, secret, otpExpirationMinutes, maxAttempts,
+                meterRegistry);
+    }
+
+    @Override
+    public void store(String email, String otp) {
+        remote.store(email, otp);
+        local.store(email, otp);
+    }
+
+    @Override
+    public VerifyResult verifyAndConsume(String email, String otp) {
+        VerifyResult result = local.verifyAndConsume(email, otp);
+        switch (result) {
+            case EXPIRED -> {
+                return remote.verifyAndConsume(email, otp);
+            }
+            case VALID, TOO_MANY_ATTEMPTS -> remote.delete(email);
+            case INVALID -> remote.recordFailedAttempt(email);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package com.erp.valid.service;
+
+import com.erp.valid.util.EmailNormalizer;
+
+/**
+ * Holds one pending OTP per email together with its failed attempt count.
+ * Verification is check-and-consume in one atomic step, so an OTP can be used only once.
+ */
+public interface OtpStore {
+
+    enum VerifyResult { VALID, INVALID, EXPIRED, TOO_MANY_ATTEMPTS }
+
+    /**
+     * Store a fresh OTP for an email, replacing any previous one and its attempt count
+     */
+    void store(String email, String otp);
+
+    /**
+     * Check the OTP and, if it matches, delete it in the same step.
+     * A wrong code counts as an attempt; the OTP is discarded once max-attempts is reached.
+     */
+    VerifyResult verifyAndConsume(String email, String otp);
+
+    static String key(String email) {
+        return "otp:" + EmailNormalizer.normalize(email);
+    }
+}
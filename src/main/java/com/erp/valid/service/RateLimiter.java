@@ -0,0 +1,16 @@
+package com.erp.valid.service;
+
+import java.time.Duration;
+
+/**
+ * Token-bucket rate limiter.
+ * A bucket holds up to {@code capacity} tokens and refills completely over {@code period}.
+ */
+public interface RateLimiter {
+
+    /**
+     * Take one token from the bucket.
+     * Returns 0 if the request is allowed, otherwise the milliseconds until a token is available.
+     */
+    long tryConsume(String key, int capacity, Duration period);
+}
@@ -0,0 +1,64 @@
+package com.erp.valid.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Attempt store shared by all nodes.
+ *
+ * Each key is a sorted set of failure timestamps. Trimming, adding, counting and refreshing
+ * the TTL happen in one Lua script, so a failure costs a single round trip.
+ */
+@Service
+@ConditionalOnProperty(name = "security.lockout.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisLoginAttemptStore implements LoginAttemptStore {
+
+    private static final RedisScript<Long> RECORD_FAILURE = RedisScript.of("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1] - ARGV[2])
+            redis.call('ZADD', KEYS[1], ARGV[1], ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return redis.call('ZCARD', KEYS[1])
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${security.lockout.window-minutes:15}")
+    private long windowMinutes;
+
+    @Override
+    public int recordFailure(String key) {
+        long now = System.currentTimeMillis();
+        Long count = redisTemplate.execute(RECORD_FAILURE, List.of(redisKey(key)),
+                String.valueOf(now), String.valueOf(windowMs()), now + ":" + UUID.randomUUID());
+        return count == null ? 0 : count.intValue();
+    }
+
+    @Override
+    public int failureCount(String key) {
+        long now = System.currentTimeMillis();
+        Long count = redisTemplate.opsForZSet().count(redisKey(key), now - windowMs(), Double.POSITIVE_INFINITY);
+        return count == null ? 0 : count.intValue();
+    }
+
+    @Override
+    public void reset(String key) {
+        redisTemplate.delete(redisKey(key));
+    }
+
+    private long windowMs() {
+        return Duration.ofMinutes(windowMinutes).toMillis();
+    }
+
+    private String redisKey(String key) {
+        return "login-attempts:" + key;
+    }
+}
@@ -0,0 +1,147 @@
+package com.erp.valid.service;
+
+import com.erp.valid.util.OtpUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * OTP store shared by all nodes.
+ *
+ * Each email maps to one 17-byte string value: a single attempt-count byte followed by the
+ * 16-byte keyed digest of the code. The plaintext code never reaches Redis. Storing and verifying
+ * are each a single Lua script. Verify-and-consume is therefore one atomic round trip, and two
+ * concurrent verifies cannot both succeed. The digest comparison in the script does not stop
+ * at the first differing byte.
+ */
+@Service
+@ConditionalOnProperty(name = "otp.store", havingValue = "redis")
+@Slf4j
+public class RedisOtpStore implements OtpStore {
+
+    private static final RedisScript<Long> STORE = RedisScript.of("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    // 0 = expired, 1 = valid (consumed), 2 = invalid, 3 = invalid and attempts exhausted (consumed)
+    private static final RedisScript<Long> VERIFY_AND_CONSUME = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return 0
+            end
+            local presented = ARGV[1]
+            local diff = 0
+            if #value - 1 ~= #presented then
+                diff = 1
+            end
+            for i = 1, #presented do
+                diff = bit.bor(diff, bit.bxor(string.byte(value, i + 1) or 0, string.byte(presented, i)))
+            end
+            if diff == 0 then
+                redis.call('DEL', KEYS[1])
+                return 1
+            end
+            local attempts = string.byte(value, 1) + 1
+            if attempts >= tonumber(ARGV[2]) then
+                redis.call('DEL', KEYS[1])
+                return 3
+            end
+            redis.call('SETRANGE', KEYS[1], 0, string.char(attempts))
+            return 2
+            """, Long.class);
+
+    private static final RedisScript<Long> RECORD_FAILED_ATTEMPT = RedisScript.of("""
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                return 0
+            end
+            local attempts = math.min(string.byte(value, 1) + 1, 255)
+            redis.call('SETRANGE', KEYS[1], 0, string.char(attempts))
+            return attempts
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final byte[] secret;
+    private final int otpExpirationMinutes;
+    private final byte[] maxAttempts;
+    private final Timer storeTimer;
+    private final Timer verifyTimer;
+    private final Timer deleteTimer;
+    private final Timer recordFailedAttemptTimer;
+
+    public RedisOtpStore(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                         @Value("${otp.secret:${jwt.secret}}") String secret,
+                         @Value("${otp.expiration.minutes:1}") int otpExpirationMinutes,
+                         @Value("${otp.max-attempts:5}") int maxAttempts,
+                         MeterRegistry meterRegistry) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.otpExpirationMinutes = otpExpirationMinutes;
+        this.maxAttempts = ascii(Math.min(maxAttempts, 255));
+        this.storeTimer = redisTimer(meterRegistry, "store");
+        this.verifyTimer = redisTimer(meterRegistry, "verify");
+        this.deleteTimer = redisTimer(meterRegistry, "delete");
+        this.recordFailedAttemptTimer = redisTimer(meterRegistry, "record_failed_attempt");
+    }
+
+    private static Timer redisTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.otp.redis")
+                .description("Round trip of an OTP command to Redis")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void store(String email, String otp) {
+        byte[] value = new byte[1 + OtpUtil.DIGEST_LENGTH];
+        System.arraycopy(OtpUtil.digest(secret, email, otp), 0, value, 1, OtpUtil.DIGEST_LENGTH);
+        storeTimer.record(() -> binaryRedisTemplate.execute(STORE, List.of(OtpStore.key(email)),
+                value, ascii(Duration.ofMinutes(otpExpirationMinutes).toMillis())));
+        log.info("OTP stored in Redis cache for email: {} with expiration: {} minutes", email, otpExpirationMinutes);
+    }
+
+    @Override
+    public VerifyResult verifyAndConsume(String email, String otp) {
+        byte[] digest = OtpUtil.digest(secret, email, otp);
+        Long result = verifyTimer.record(() -> binaryRedisTemplate.execute(VERIFY_AND_CONSUME,
+                List.of(OtpStore.key(email)), digest, maxAttempts));
+
+        VerifyResult verifyResult = switch (result == null ? 0 : result.intValue()) {
+            case 1 -> VerifyResult.VALID;
+            case 2 -> VerifyResult.INVALID;
+            case 3 -> VerifyResult.TOO_MANY_ATTEMPTS;
+            default -> VerifyResult.EXPIRED;
+        };
+        log.info("OTP verification for email: {} -> {}", email, verifyResult);
+        return verifyResult;
+    }
+
+    /**
+     * Drop the OTP without verifying it
+     */
+    void delete(String email) {
+        deleteTimer.record(() -> binaryRedisTemplate.delete(OtpStore.key(email)));
+    }
+
+    /**
+     * Count a failed attempt decided elsewhere (near-cache mode)
+     */
+    void recordFailedAttempt(String email) {
+        recordFailedAttemptTimer.record(
+                () -> binaryRedisTemplate.execute(RECORD_FAILED_ATTEMPT, List.of(OtpStore.key(email))));
+    }
+
+    private static byte[] ascii(long value) {
+        return String.valueOf(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,46 @@
+package com.erp.valid.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limiter shared by all nodes.
+ * Same GCRA bucket as {@link InMemoryRateLimiter}, evaluated atomically in one Lua round trip
+ * using the Redis server clock.
+ */
+@Service
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final RedisScript<Long> CONSUME = RedisScript.of("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            local next = math.max(tat, now) + interval
+            local excess = next - now - burst
+            if excess > 0 then
+                return math.max(1, excess)
+            end
+            redis.call('SET', KEYS[1], next, 'PX', burst)
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Override
+    public long tryConsume(String key, int capacity, Duration period) {
+        long periodMs = period.toMillis();
+        Long waitMs = redisTemplate.execute(CONSUME, List.of("rate-limit:" + key),
+                String.valueOf(Math.max(1, periodMs / capacity)), String.valueOf(periodMs));
+        return waitMs == null ? 0 : waitMs;
+    }
+}
@@ -0,0 +1,119 @@
+package com.erp.valid.service;
+
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.SupersededRefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deletes expired refresh tokens, and the superseded digests kept for reuse detection, in the background.
+ * Each batch is one indexed SELECT of ids plus one DELETE in its own transaction,
+ * so row locks are held only briefly and the refresh path is never blocked for long.
+ */
+@Component
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SupersededRefreshTokenRepository supersededRepository;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
+
+    @Value("${jwt.refresh.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.refresh.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jwt.refresh.purge.pause-ms:100}")
+    private long pauseMs;
+
+    public RefreshTokenPurger(RefreshTokenRepository refreshTokenRepository,
+                              SupersededRefreshTokenRepository supersededRepository,
+                              MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.supersededRepository = supersededRepository;
+        this.purgedCounter = Counter.builder("auth.refresh.purged")
+                .description("Expired refresh tokens deleted by the purger")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("auth.refresh.purge")
+                .description("Duration of a full expired refresh token purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${jwt.refresh.purge.interval-ms:3600000}",
+            fixedDelayString = "${jwt.refresh.purge.interval-ms:3600000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeExpired();
+        }
+    }
+
+    /**
+     * Purge every token that expired before now, batch by batch. Returns the refresh tokens deleted.
+     */
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        long start = System.nanoTime();
+
+        int total = purge(
+                page -> refreshTokenRepository.findExpiredIds(now, page),
+                ids -> refreshTokenRepository.deleteExpiredByIdIn(ids, now));
+        purgedCounter.increment(total);
+        int superseded = purge(
+                page -> supersededRepository.findExpiredIds(now, page),
+                supersededRepository::deleteByIdIn);
+
+        long elapsed = System.nanoTime() - start;
+        purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (total > 0 || superseded > 0) {
+            log.info("Purged {} expired refresh token(s) and {} superseded digest(s) in {} ms",
+                    total, superseded, elapsed / 1_000_000);
+        }
+        return total;
+    }
+
+    private int purge(Function<Pageable, List<Long>> findExpiredIds, ToIntFunction<List<Long>> deleteByIds) {
+        int total = 0;
+        while (true) {
+            List<Long> ids = findExpiredIds.apply(PageRequest.ofSize(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            total += deleteByIds.applyAsInt(ids);
+
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Refresh token purge interrupted");
+            return false;
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.erp.valid.service;
 
 import com.erp.valid.entity.RefreshToken;
+import com.erp.valid.entity.SupersededRefreshToken;
 import com.erp.valid.entity.User;
 import com.erp.valid.exception.ConflictException;
 import com.erp.valid.repository.RefreshTokenRepository;
-import com.erp.valid.repository.UserRepository;
+import com.erp.valid.repository.SupersededRefreshTokenRepository;
+import com.erp.valid.util.TokenDigestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Instant;
-import java.util.Optional;
+import java.util.Base64;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -20,54 +25,171 @@ import java.util.UUID;
 @Slf4j
 public class RefreshTokenService {
 
+    private static final SecureRandom random = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private final SupersededRefreshTokenRepository supersededRepository;
 
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenDurationMs;
 
+    @Value("${jwt.refresh.max-sessions:5}")
+    private int maxSessions;
+
+    public record IssuedRefreshToken(UUID familyId, String token) {
+    }
+
+    public record RotatedRefreshToken(User user, UUID familyId, String token) {
+    }
+
     /**
-     * Creates a new Refresh Token for the user, replacing any existing one.
+     * Issues a new Refresh Token for the user, starting a new session (token family).
+     * Sessions on other devices are kept up to the configured cap; the oldest ones beyond it
+     * are removed with one bulk DELETE. Returns the family id and the plaintext token; only its digest is stored.
      */
     @Transactional
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ConflictException("User not found for refresh token generation"));
-
-        // Delete existing refresh token to enforce one token per user (security practice)
-        refreshTokenRepository.deleteByUser(user);
+    public IssuedRefreshToken createRefreshToken(User user, String userAgent) {
+        String token = generateToken();
+        byte[] tokenHash = TokenDigestUtil.sha256(token);
+        Instant now = Instant.now();
 
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
+        UUID familyId = UUID.randomUUID();
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setLookupKey(TokenDigestUtil.lookupKey(tokenHash));
+        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setExpiryDate(now.plusMillis(refreshTokenDurationMs));
+        refreshToken.setCreatedAt(now);
+        refreshToken.setLastUsedAt(now);
+        refreshToken.setUserAgent(userAgent != null && userAgent.length() > 255
+                ? userAgent.substring(0, 255) : userAgent);
+        refreshTokenRepository.save(refreshToken);
+
+        evictSessionsOverCap(user.getId());
 
         log.info("New refresh token created for user: {}", user.getEmail());
-        return refreshTokenRepository.save(refreshToken);
+        return new IssuedRefreshToken(familyId, token);
+    }
+
+    private void evictSessionsOverCap(Long userId) {
+        List<Long> sessionIds = refreshTokenRepository.findSessionIdsNewestFirst(userId);
+        if (sessionIds.size() > maxSessions) {
+            List<Long> oldest = sessionIds.subList(maxSessions, sessionIds.size());
+            supersededRepository.deleteBySessionIds(oldest, userId);
+            int evicted = refreshTokenRepository.deleteByIdIn(oldest);
+            log.info("Evicted {} oldest session(s) for user ID: {}", evicted, userId);
+        }
+    }
+
+    /**
+     * The user's sessions, newest first
+     */
+    public List<RefreshToken> listSessions(Long userId) {
+        return refreshTokenRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Delete one session by its row id, with its superseded digests; fails if it does not exist or belongs to another user
+     */
+    @Transactional
+    public void revokeSession(Long userId, Long sessionId) {
+        supersededRepository.deleteBySessionIds(List.of(sessionId), userId);
+        if (refreshTokenRepository.deleteByIdAndUserId(sessionId, userId) == 0) {
+            throw new ConflictException("Session not found");
+        }
+        log.info("Session {} revoked for user ID: {}", sessionId, userId);
     }
 
     /**
-     * Finds and validates the Refresh Token.
-     * Throws an exception if expired.
+     * Exchanges a refresh token for a new one in the same family.
+     *
+     * The swap is a single conditional UPDATE, so two concurrent refreshes with the same token
+     * cannot both succeed. Every rotated-away token of the family is remembered until it would have
+     * expired; presenting any of them means the family was copied, so the whole family is revoked
+     * and the user has to log in again.
      */
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        if (token.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
-            log.warn("Expired refresh token deleted: {}", token.getToken());
+    @Transactional(noRollbackFor = ConflictException.class)
+    public RotatedRefreshToken rotate(String presentedToken) {
+        byte[] presentedHash = TokenDigestUtil.sha256(presentedToken);
+        long presentedKey = TokenDigestUtil.lookupKey(presentedHash);
+
+        RefreshToken current = refreshTokenRepository.findByLookupKey(presentedKey)
+                .filter(token -> MessageDigest.isEqual(token.getTokenHash(), presentedHash))
+                .orElse(null);
+
+        if (current == null) {
+            detectReuse(presentedKey, presentedHash);
+            throw new ConflictException("Refresh token is not in database!");
+        }
+
+        if (current.getExpiryDate().isBefore(Instant.now())) {
+            refreshTokenRepository.delete(current);
+            log.warn("Expired refresh token deleted for family: {}", current.getFamilyId());
             throw new ConflictException("Refresh token was expired. Please make a new login request");
         }
-        return token;
+
+        String newToken = generateToken();
+        byte[] newHash = TokenDigestUtil.sha256(newToken);
+        int rotated = refreshTokenRepository.rotate(
+                current.getId(),
+                presentedKey,
+                TokenDigestUtil.lookupKey(newHash),
+                newHash,
+                Instant.now().plusMillis(refreshTokenDurationMs),
+                Instant.now());
+
+        if (rotated == 0) {
+            // Lost the race against another request presenting the same token
+            revokeFamily(current.getFamilyId());
+            throw new ConflictException("Refresh token reuse detected. Please log in again.");
+        }
+        supersededRepository.save(new SupersededRefreshToken(
+                current.getFamilyId(), presentedKey, presentedHash, current.getExpiryDate()));
+
+        return new RotatedRefreshToken(current.getUser(), current.getFamilyId(), newToken);
+    }
+
+    private void detectReuse(long presentedKey, byte[] presentedHash) {
+        for (SupersededRefreshToken superseded : supersededRepository.findByLookupKey(presentedKey)) {
+            if (MessageDigest.isEqual(superseded.getTokenHash(), presentedHash)) {
+                revokeFamily(superseded.getFamilyId());
+                throw new ConflictException("Refresh token reuse detected. Please log in again.");
+            }
+        }
+    }
+
+    private void revokeFamily(UUID familyId) {
+        int revoked = refreshTokenRepository.deleteByFamilyId(familyId);
+        supersededRepository.deleteByFamilyId(familyId);
+        log.warn("Refresh token reuse detected; revoked {} token(s) in family: {}", revoked, familyId);
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    /**
+     * End the session an access token was issued for. Its refresh token and superseded digests are deleted;
+     * a session already gone (revoked, evicted or expired) is not an error.
+     */
+    @Transactional
+    public void deleteFamily(Long userId, UUID familyId) {
+        int revoked = refreshTokenRepository.deleteByFamilyIdAndUserId(familyId, userId);
+        supersededRepository.deleteByFamilyId(familyId);
+        log.info("{} refresh token(s) deleted for session {} of user ID: {}", revoked, familyId, userId);
     }
 
+    /**
+     * Revoke every session of the user: one bulk DELETE of the superseded digests, one of the sessions
+     */
     @Transactional
     public void deleteByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ConflictException("User not found"));
-        refreshTokenRepository.deleteByUser(user);
-        log.info("Refresh token deleted for user ID: {}", userId);
+        supersededRepository.deleteByUserId(userId);
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        log.info("{} refresh token(s) deleted for user ID: {}", revoked, userId);
+    }
+
+    private static String generateToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return ENCODER.encodeToString(bytes);
     }
-}
\ No newline at end of file
+}
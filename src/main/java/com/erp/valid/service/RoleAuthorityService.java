@@ -0,0 +1,69 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.Permission;
+import com.erp.valid.entity.Role;
+import com.erp.valid.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Role to authorities map used to authorize requests without touching the database.
+ * The map is immutable and replaced as a whole: it is loaded with one query at startup,
+ * on every {@link RolePermissionsChangedEvent}, and periodically to pick up changes
+ * made on other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoleAuthorityService {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<String, List<GrantedAuthority>> authorities = Map.of();
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * The role itself plus each of its permissions. A role not loaded yet grants only itself.
+     */
+    public List<GrantedAuthority> authoritiesFor(String role) {
+        List<GrantedAuthority> granted = authorities.get(role);
+        return granted != null ? granted : List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.authorities.refresh-interval-ms:300000}",
+            fixedDelayString = "${security.authorities.refresh-interval-ms:300000}")
+    public void refresh() {
+        Map<String, List<GrantedAuthority>> loaded = new HashMap<>();
+        for (Role role : roleRepository.findAllWithPermissions()) {
+            List<GrantedAuthority> granted = new ArrayList<>(role.getPermissions().size() + 1);
+            granted.add(new SimpleGrantedAuthority(role.getName()));
+            for (Permission permission : role.getPermissions()) {
+                granted.add(new SimpleGrantedAuthority(permission.getName()));
+            }
+            loaded.put(role.getName(), List.copyOf(granted));
+        }
+        authorities = Map.copyOf(loaded);
+        log.debug("Loaded authorities for {} roles", loaded.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolePermissionsChanged(RolePermissionsChangedEvent event) {
+        refresh();
+    }
+}
@@ -0,0 +1,7 @@
+package com.erp.valid.service;
+
+/**
+ * Published when roles or their permissions are created or changed, so the authority map is reloaded
+ */
+public record RolePermissionsChangedEvent() {
+}
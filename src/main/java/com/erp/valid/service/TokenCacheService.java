@@ -0,0 +1,48 @@
+package com.erp.valid.service;
+
+import com.erp.valid.util.JwtPrincipal;
+import com.erp.valid.util.JwtUtil;
+import com.erp.valid.util.TokenDigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class TokenCacheService {
+
+    private final Cache<String, JwtPrincipal> verifiedTokenCache;
+    private final JwtUtil jwtUtil;
+
+    /**
+     * Return the verified principal for a bearer token.
+     * Repeat tokens are served from the cache; only a miss pays for the signature check.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        String key = TokenDigestUtil.digestKey(token);
+
+        JwtPrincipal cached = verifiedTokenCache.getIfPresent(key);
+        if (cached != null) {
+            if (!cached.isExpired(Instant.now())) {
+                return Optional.of(cached);
+            }
+            verifiedTokenCache.invalidate(key);
+            return Optional.empty();
+        }
+
+        Optional<JwtPrincipal> principal = jwtUtil.verifyToken(token);
+        principal.ifPresent(p -> verifiedTokenCache.put(key, p));
+        return principal;
+    }
+
+    /**
+     * Statistics are also published as cache.* meters (cache=jwt.verified)
+     */
+    public CacheStats stats() {
+        return verifiedTokenCache.stats();
+    }
+}
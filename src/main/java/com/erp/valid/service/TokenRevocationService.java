@@ -0,0 +1,94 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.RevokedToken;
+import com.erp.valid.repository.RevokedTokenRepository;
+import com.erp.valid.util.BloomFilter;
+import com.erp.valid.util.JwtPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revocation list for access tokens, keyed by jti.
+ * A local bloom filter answers "definitely not revoked" for nearly every request;
+ * only a filter hit (a revoked token or a rare false positive) goes to the database.
+ * The filter is rebuilt periodically, which also picks up revocations made on other nodes
+ * and lets expired entries age out. Revocations made on this node are also journaled until the
+ * token expires and replayed into every rebuilt filter: the rebuild snapshot can miss a row whose
+ * transaction had not committed yet, and the put into the old filter would otherwise be lost.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // jti -> expiry of tokens revoked on this node; guarded by itself, as is swapping the filter
+    private final Map<String, Instant> journal = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public void revoke(JwtPrincipal principal) {
+        if (principal.tokenId() == null || principal.isExpired(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(principal.tokenId(), principal.expiresAt()));
+        synchronized (journal) {
+            journal.put(principal.tokenId(), principal.expiresAt());
+            filter.put(principal.tokenId());
+        }
+        log.info("Access token {} revoked for user: {}", principal.tokenId(), principal.email());
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        String tokenId = principal.tokenId();
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Drop expired entries and rebuild the filter from the live ones plus this node's journal
+     */
+    @Scheduled(
+            initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}",
+            fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        int expired = revokedTokenRepository.deleteExpired(now);
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, active.size() * 2L), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        synchronized (journal) {
+            journal.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            journal.keySet().forEach(rebuilt::put);
+            this.filter = rebuilt;
+        }
+
+        if (expired > 0 || !active.isEmpty()) {
+            log.debug("Revocation filter rebuilt: {} active, {} expired removed", active.size(), expired);
+        }
+    }
+}
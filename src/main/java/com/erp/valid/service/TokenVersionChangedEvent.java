@@ -0,0 +1,7 @@
+package com.erp.valid.service;
+
+/**
+ * Published when a user's token version is bumped, i.e. all their access tokens were revoked
+ */
+public record TokenVersionChangedEvent(Long userId, int tokenVersion) {
+}
@@ -0,0 +1,52 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.User;
+import com.erp.valid.repository.UserRepository;
+import com.erp.valid.util.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-user token version check ("logout everywhere").
+ * Every access token carries the version current when it was issued; bumping the version
+ * on the user invalidates all earlier tokens. Versions are served from a local cache that
+ * change events keep current, so the request path reads the database only on a cache miss.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenVersionService {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> tokenVersionCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * A token is current if it was issued at or after the user's latest version.
+     * A token newer than the cached version (bumped on another node) is accepted.
+     */
+    public boolean isCurrent(JwtPrincipal principal) {
+        Integer current = tokenVersionCache.get(principal.userId(),
+                userId -> userRepository.findTokenVersionById(userId).orElse(null));
+        return current != null && principal.tokenVersion() >= current;
+    }
+
+    /**
+     * Bump the version on the managed user; the change is written with the caller's transaction
+     */
+    public void revokeAll(User user) {
+        int next = user.getTokenVersion() + 1;
+        user.setTokenVersion(next);
+        eventPublisher.publishEvent(new TokenVersionChangedEvent(user.getId(), next));
+        log.info("All access tokens revoked for user: {}", user.getEmail());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokenVersionChanged(TokenVersionChangedEvent event) {
+        tokenVersionCache.put(event.userId(), event.tokenVersion());
+    }
+}
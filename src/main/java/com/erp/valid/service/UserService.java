@@ -7,13 +7,21 @@ import com.erp.valid.exception.ConflictException;
 import com.erp.valid.exception.RoleNotFoundException;
 import com.erp.valid.repository.RoleRepository;
 import com.erp.valid.repository.UserRepository;
+import com.erp.valid.util.EmailNormalizer;
+import com.erp.valid.util.JwtPrincipal;
 import com.erp.valid.util.JwtUtil;
 import com.erp.valid.util.OtpUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +32,24 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
-    private final OtpCacheService otpCacheService;
+    private final OtpStore otpStore;
     private final JwtUtil jwtUtil;
     private final AccountLockoutService lockoutService;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenVersionService tokenVersionService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // Resolved on first registration; roles are never deleted
+    private volatile Long defaultRoleId;
+
+    /**
+     * Duplicates are checked in two steps. One SELECT over the unique username and email indexes
+     * runs before the password is hashed, so a duplicate signup never takes a hashing pool slot.
+     * Two concurrent signups can both pass it; the unique constraints then reject the second INSERT.
+     * The hash is computed before any transaction opens, so a signup waiting for the hashing pool
+     * holds no database connection; the INSERT and the queued OTP email share one short transaction.
+     */
     public UserResponse registerUser(RegisterRequest request) {
         log.info("Attempting to register user with email: {}", request.getEmail());
 
@@ -37,32 +57,40 @@ public class UserService {
             throw new ConflictException("Passwords do not match");
         }
 
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
+        // Cheap pre-check so a duplicate signup never reaches the hashing pool;
+        // the unique constraints still decide when two signups race past it
+        List<String> taken = userRepository.findTakenKeys(
+                request.getUsername(), EmailNormalizer.normalize(request.getEmail()));
+        if (taken.contains("username")) {
             throw new ConflictException("Username already exists");
         }
-
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+        if (!taken.isEmpty()) {
             throw new ConflictException("Email already exists");
         }
 
-        Role defaultRole = roleRepository.findByName("ROLE_USER")
-                .orElseThrow(() -> new RoleNotFoundException("Default role not found"));
-
         String otp = OtpUtil.generateOtp();
 
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setRole(defaultRole);
         user.setActive(false);
         user.setEnabled(true);
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = transactionTemplate.execute(status -> {
+                user.setRole(defaultRole());
+                User saved = userRepository.saveAndFlush(user);
+                emailService.sendOtpEmail(saved.getEmail(), otp);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
         log.info("User registered successfully with ID: {}", savedUser.getId());
 
-        otpCacheService.storeOtp(savedUser.getEmail(), otp);
-        emailService.sendOtpEmail(savedUser.getEmail(), otp);
+        otpStore.store(savedUser.getEmail(), otp);
 
         return new UserResponse(
                 savedUser.getId(),
@@ -72,8 +100,37 @@ public class UserService {
         );
     }
 
+    /**
+     * Reference to the default role without a SELECT once its id is known
+     */
+    private Role defaultRole() {
+        Long roleId = defaultRoleId;
+        if (roleId == null) {
+            roleId = roleRepository.findByName("ROLE_USER")
+                    .orElseThrow(() -> new RoleNotFoundException("Default role not found"))
+                    .getId();
+            defaultRoleId = roleId;
+        }
+        return roleRepository.getReferenceById(roleId);
+    }
+
+    private RuntimeException duplicateUser(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        if (constraint != null) {
+            constraint = constraint.toLowerCase(Locale.ROOT);
+            if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+                return new ConflictException("Username already exists");
+            }
+            if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+                return new ConflictException("Email already exists");
+            }
+        }
+        return e;
+    }
+
     @Transactional
-    public AuthResponse verifyOtpAndGenerateToken(VerifyOtpRequest request) {
+    public AuthResponse verifyOtpAndGenerateToken(VerifyOtpRequest request, String userAgent) {
         log.info("Attempting to verify OTP for email: {}", request.getEmail());
 
         User user = userRepository.findByEmail(request.getEmail())
@@ -83,39 +140,42 @@ public class UserService {
             throw new ConflictException("Account already verified");
         }
 
-        String storedOtp = otpCacheService.getOtp(request.getEmail());
-
-        if (storedOtp == null) {
-            log.warn("OTP expired or not found for email: {}", request.getEmail());
-            throw new ConflictException("OTP has expired. Please request a new one.");
-        }
-
-        if (!request.getOtp().equals(storedOtp)) {
-            log.warn("Invalid OTP attempt for email: {}", request.getEmail());
-            throw new ConflictException("Invalid OTP");
+        switch (otpStore.verifyAndConsume(request.getEmail(), request.getOtp())) {
+            case EXPIRED -> {
+                log.warn("OTP expired or not found for email: {}", request.getEmail());
+                throw new ConflictException("OTP has expired. Please request a new one.");
+            }
+            case INVALID -> {
+                log.warn("Invalid OTP attempt for email: {}", request.getEmail());
+                throw new ConflictException("Invalid OTP");
+            }
+            case TOO_MANY_ATTEMPTS -> {
+                log.warn("OTP attempts exhausted for email: {}", request.getEmail());
+                throw new ConflictException("Too many invalid OTP attempts. Please request a new one.");
+            }
         }
 
         user.setActive(true);
         userRepository.save(user);
 
-        otpCacheService.deleteOtp(request.getEmail());
-
         log.info("User verified successfully: {}", user.getEmail());
 
+        // Refresh Token first: its family id is the session the access token belongs to
+        RefreshTokenService.IssuedRefreshToken refreshToken = refreshTokenService.createRefreshToken(user, userAgent);
+
         String token = jwtUtil.generateToken(
                 user.getId(),
                 user.getEmail(),
-                user.getRole().getName()
+                user.getRole().getName(),
+                user.getTokenVersion(),
+                refreshToken.familyId()
         );
-        // 2. Generate Refresh Token (long-lived, persistent)
-        String refreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
 
         emailService.sendWelcomeEmail(user.getEmail(), user.getUsername());
-//        otpCacheService.logCacheStats();
 
         return new AuthResponse(
                 token,
-                refreshToken,
+                refreshToken.token(),
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -136,7 +196,7 @@ public class UserService {
         }
 
         String newOtp = OtpUtil.generateOtp();
-        otpCacheService.storeOtp(user.getEmail(), newOtp);
+        otpStore.store(user.getEmail(), newOtp);
 
         log.info("New OTP generated for email: {}", email);
 
@@ -150,12 +210,27 @@ public class UserService {
         );
     }
 
-    @Transactional()
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Hashing runs outside any transaction, so a login waiting for the hashing pool holds no
+     * database connection. The user is read with one SELECT, the password is checked, and only
+     * then does a short transaction write: the new session, plus the user row when its lock
+     * state or hash changed. A failure that does not lock the account writes nothing.
+     */
+    public AuthResponse login(LoginRequest request, String clientIp, String userAgent) {
         log.info("Login attempt for email: {}", request.getEmail());
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ConflictException("Invalid email or password"));
+        if (lockoutService.isIpBlocked(clientIp)) {
+            log.warn("Login attempt from blocked address: {}", clientIp);
+            throw new ConflictException("Too many failed login attempts. Please try again later.");
+        }
+
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        if (user == null) {
+            lockoutService.handleFailedLogin(clientIp);
+            throw new ConflictException("Invalid email or password");
+        }
+        // A stored lock or failure count is cleared on success, and an expired lock below, so the row is written
+        boolean clearsLock = user.isAccountLocked() || user.getFailedLoginAttempts() > 0;
         // Check if account is locked
         if (lockoutService.isAccountLocked(user)) {
             long remainingMinutes = lockoutService.getRemainingLockTime(user);
@@ -175,10 +250,7 @@ public class UserService {
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
             log.warn("Failed login attempt for email: {}", request.getEmail());
-            lockoutService.handleFailedLogin(user);
-
-            User updatedUser = userRepository.findByEmail(request.getEmail()).orElseThrow();
-            int remainingAttempts = lockoutService.getRemainingAttempts(updatedUser);
+            int remainingAttempts = lockoutService.handleFailedLogin(user, clientIp);
             if (remainingAttempts > 0) {
                 throw new ConflictException(
                         String.format("Invalid email or password. %d attempts remaining.",
@@ -192,24 +264,37 @@ public class UserService {
             }
         }
 
-// Successful login - reset failed attempts
-        lockoutService.handleSuccessfulLogin(user);
-
-        // 2. Generate Refresh Token (long-lived, persistent)
-        String refreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken(); // <--- NEW
+        // Rehash with the current algorithm/cost while the plaintext is available
+        String upgradedHash = passwordEncoder.upgradeEncoding(user.getPassword())
+                ? passwordEncoder.encode(request.getPassword()) : null;
 
+        RefreshTokenService.IssuedRefreshToken refreshToken = transactionTemplate.execute(status -> {
+            if (upgradedHash != null) {
+                user.setPassword(upgradedHash);
+                log.info("Password hash upgraded for user: {}", user.getEmail());
+            }
+            // Successful login - reset failed attempts
+            lockoutService.handleSuccessfulLogin(user);
+            if (clearsLock || upgradedHash != null) {
+                userRepository.save(user);
+            }
+            // Refresh Token first: its family id is the session the access token belongs to
+            return refreshTokenService.createRefreshToken(user, userAgent);
+        });
 
         String token = jwtUtil.generateToken(
                 user.getId(),
                 user.getEmail(),
-                user.getRole().getName()
+                user.getRole().getName(),
+                user.getTokenVersion(),
+                refreshToken.familyId()
         );
 
         log.info("User logged in successfully: {}", user.getEmail());
 
         return new AuthResponse(
                 token,
-                refreshToken,
+                refreshToken.token(),
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -218,42 +303,79 @@ public class UserService {
         );
     }
     /**
-     * Handles the refresh token request, issuing a new Access Token.
+     * Handles the refresh token request, issuing a new Access Token and rotating the Refresh Token.
      */
-    @Transactional
+    @Transactional(noRollbackFor = ConflictException.class)
     public TokenRefreshResponse refreshAccessToken(TokenRefreshRequest request) {
-        String requestRefreshToken = request.getRefreshToken();
+        RefreshTokenService.RotatedRefreshToken rotated =
+                refreshTokenService.rotate(request.getRefreshToken());
 
-        RefreshToken refreshToken = refreshTokenService.findByToken(requestRefreshToken)
-                .orElseThrow(() -> new ConflictException("Refresh token is not in database!"));
-
-        // 1. Verify token expiration
-        refreshTokenService.verifyExpiration(refreshToken);
-
-        // 2. Get user and generate new Access Token
-        User user = refreshToken.getUser();
+        User user = rotated.user();
         String newAccessToken = jwtUtil.generateToken(
                 user.getId(),
                 user.getEmail(),
-                user.getRole().getName()
+                user.getRole().getName(),
+                user.getTokenVersion(),
+                rotated.familyId()
         );
 
-        // Optional: Re-issue a new Refresh Token (rotating tokens)
-        String newRefreshToken = refreshTokenService.createRefreshToken(user.getId()).getToken();
-
         log.info("Access token refreshed for user: {}", user.getEmail());
 
-        return new TokenRefreshResponse(newAccessToken, newRefreshToken, "Bearer");
+        return new TokenRefreshResponse(newAccessToken, rotated.token(), "Bearer");
+    }
+
+    /**
+     * The user's active sessions (one per device), newest first
+     */
+    public List<SessionResponse> listSessions(Long userId) {
+        return refreshTokenService.listSessions(userId).stream()
+                .map(session -> new SessionResponse(
+                        session.getId(),
+                        session.getUserAgent(),
+                        session.getCreatedAt(),
+                        session.getLastUsedAt(),
+                        session.getExpiryDate()))
+                .toList();
     }
 
     /**
-     * Logout logic: deletes the refresh token from persistence.
+     * End one of the user's sessions by id. Access tokens already issued for it stay valid until they expire.
+     */
+    public void revokeSession(Long userId, Long sessionId) {
+        refreshTokenService.revokeSession(userId, sessionId);
+    }
+
+    /**
+     * End every session of the user. Unlike logoutAll, access tokens already issued stay valid until they expire.
+     */
+    public void revokeAllSessions(Long userId) {
+        refreshTokenService.deleteByUserId(userId);
+    }
+
+    /**
+     * Log out everywhere: every access token issued so far stops working and all sessions are deleted
      */
     @Transactional
-    public void logout(String email) {
-        User user = userRepository.findByEmail(email)
+    public void logoutAll(Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ConflictException("User not found"));
 
-        refreshTokenService.deleteByUserId(user.getId());
+        tokenVersionService.revokeAll(user);
+        refreshTokenService.deleteByUserId(userId);
+    }
+
+    /**
+     * Logout logic: revokes the presented access token and deletes the refresh token of its session.
+     * The user's sessions on other devices are kept.
+     */
+    @Transactional
+    public void logout(JwtPrincipal principal) {
+        if (principal.sessionId() != null) {
+            refreshTokenService.deleteFamily(principal.userId(), principal.sessionId());
+        } else {
+            // Issued before access tokens carried a sid; the session is unknown, so end them all
+            refreshTokenService.deleteByUserId(principal.userId());
+        }
+        tokenRevocationService.revoke(principal);
     }
 }
\ No newline at end of file
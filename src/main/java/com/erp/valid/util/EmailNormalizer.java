@@ -0,0 +1,14 @@
+package com.erp.valid.util;
+
+import java.util.Locale;
+
+public class EmailNormalizer {
+
+    /**
+     * Canonical form used for lookups and keys: trimmed and lowercased.
+     * Locale.ROOT keeps "I" from becoming a dotless i under a Turkish default locale.
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,217 @@
+package com.erp.valid.util;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signing and verification keys for access tokens.
+ *
+ * HS256 mode keeps the single shared {@code jwt.secret}. ES256 and EdDSA modes load key pairs from
+ * PEM files in {@code jwt.signing.key-dir}, a directory shared by all nodes, so every node signs with
+ * the same key and accepts the others' tokens across restarts. The file name (minus {@code .pem}) is
+ * the {@code kid}; each file holds a PRIVATE KEY and a PUBLIC KEY block and an optional
+ * {@code Not-Before: <ISO instant>} line. Every loaded key is published in the JWKS document at once,
+ * but signs only from its Not-Before, and never before it has been published for
+ * {@code jwt.signing.publish-lead-ms}, so verifiers caching the JWKS already know it. The newest
+ * active key signs. Rotation is adding a file; retirement is deleting it after its tokens expire.
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    public enum Algorithm { HS256, ES256, EdDSA }
+
+    public record SigningKey(String kid, Key signingKey, Key verificationKey, Instant activatesAt) {
+    }
+
+    private static final String NOT_BEFORE = "Not-Before:";
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    private Algorithm algorithm;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Value("${jwt.signing.key-dir:}")
+    private String keyDir;
+
+    @Value("${jwt.signing.publish-lead-ms:600000}")
+    private long publishLeadMs;
+
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long jwksMaxAgeSeconds;
+
+    private volatile Map<String, SigningKey> keys = Map.of();
+    private volatile SigningKey hmacKey;
+    // When each kid was first loaded; keys present at startup count as published long ago
+    private final Map<String, Instant> firstSeen = new ConcurrentHashMap<>();
+    private volatile boolean started;
+
+    @PostConstruct
+    void init() {
+        if (algorithm == Algorithm.HS256) {
+            Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            hmacKey = new SigningKey(null, key, key, Instant.EPOCH);
+            return;
+        }
+        if (publishLeadMs < Duration.ofSeconds(jwksMaxAgeSeconds).toMillis()) {
+            throw new IllegalStateException("jwt.signing.publish-lead-ms must be at least the JWKS cache lifetime ("
+                    + jwksMaxAgeSeconds + "s)");
+        }
+        if (keyDir == null || keyDir.isBlank()) {
+            throw new IllegalStateException("jwt.signing.key-dir is required for " + algorithm);
+        }
+        reload();
+        started = true;
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("No " + algorithm + " signing keys found in " + keyDir);
+        }
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The newest key whose activation time has passed
+     */
+    public SigningKey activeKey() {
+        if (algorithm == Algorithm.HS256) {
+            return hmacKey;
+        }
+        Instant now = Instant.now();
+        return keys.values().stream()
+                .filter(key -> !key.activatesAt().isAfter(now))
+                .max(Comparator.comparing(SigningKey::activatesAt).thenComparing(SigningKey::kid))
+                .orElseThrow(() -> new IllegalStateException("No active " + algorithm + " signing key"));
+    }
+
+    /**
+     * Key used to verify a token. The kid header is ignored in HS256 mode.
+     */
+    public Key verificationKey(String kid) {
+        if (algorithm == Algorithm.HS256) {
+            return hmacKey.verificationKey();
+        }
+        SigningKey key = kid != null ? keys.get(kid) : null;
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + kid);
+        }
+        return key.verificationKey();
+    }
+
+    /**
+     * Re-read the key directory. A file that fails to parse keeps its previously loaded key.
+     */
+    @Scheduled(
+            initialDelayString = "${jwt.signing.reload-interval-ms:60000}",
+            fixedDelayString = "${jwt.signing.reload-interval-ms:60000}")
+    public synchronized void reload() {
+        if (algorithm == Algorithm.HS256) {
+            return;
+        }
+        Instant now = Instant.now();
+        Map<String, SigningKey> loaded = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(keyDir), "*.pem")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - ".pem".length());
+                try {
+                    loaded.put(kid, readKey(kid, file, now));
+                } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                    log.error("Cannot load signing key {}: {}", file, e.getMessage());
+                    SigningKey previous = keys.get(kid);
+                    if (previous != null) {
+                        loaded.put(kid, previous);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot read signing key directory {}: {}", keyDir, e.getMessage());
+            return;
+        }
+        firstSeen.keySet().retainAll(loaded.keySet());
+        for (SigningKey key : loaded.values()) {
+            if (!keys.containsKey(key.kid())) {
+                log.info("Loaded {} signing key {} (signs from {})", algorithm, key.kid(), key.activatesAt());
+            }
+        }
+        keys = Map.copyOf(loaded);
+    }
+
+    private SigningKey readKey(String kid, Path file, Instant now) throws IOException, GeneralSecurityException {
+        String pem = Files.readString(file, StandardCharsets.US_ASCII);
+        KeyFactory keyFactory = KeyFactory.getInstance(algorithm == Algorithm.ES256 ? "EC" : "Ed25519");
+        Key privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(pemBlock(pem, "PRIVATE KEY")));
+        Key publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(pemBlock(pem, "PUBLIC KEY")));
+
+        Instant notBefore = Instant.EPOCH;
+        for (String line : pem.split("\\R")) {
+            if (line.startsWith(NOT_BEFORE)) {
+                notBefore = Instant.parse(line.substring(NOT_BEFORE.length()).trim());
+            }
+        }
+        // A key added while running is held back until verifiers have had time to fetch it
+        Instant published = firstSeen.computeIfAbsent(kid, k -> started ? now : Instant.EPOCH);
+        Instant publishedLongEnough = published.plusMillis(publishLeadMs);
+        Instant activatesAt = notBefore.isAfter(publishedLongEnough) ? notBefore : publishedLongEnough;
+        return new SigningKey(kid, privateKey, publicKey, activatesAt);
+    }
+
+    private static byte[] pemBlock(String pem, String type) {
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = pem.indexOf(begin);
+        int stop = pem.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IllegalArgumentException("missing " + type + " block");
+        }
+        return Base64.getMimeDecoder().decode(pem.substring(start + begin.length(), stop));
+    }
+
+    /**
+     * Public keys as a JWKS document, including keys not yet signing.
+     * Empty in HS256 mode so the shared secret is never published.
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, ?>> jwks = new ArrayList<>();
+        if (algorithm != Algorithm.HS256) {
+            for (SigningKey key : keys.values()) {
+                Jwk<?> jwk = Jwks.builder()
+                        .key((PublicKey) key.verificationKey())
+                        .id(key.kid())
+                        .build();
+                jwks.add(jwk);
+            }
+        }
+        return Map.of("keys", jwks);
+    }
+}
@@ -0,0 +1,29 @@
+package com.erp.valid.util;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable view of a verified access token.
+ * Produced once per request by {@link JwtUtil#verifyToken(String)}.
+ * sessionId is the refresh token family the token was issued for; null for tokens without a sid claim.
+ */
+public record JwtPrincipal(Long userId, String email, String role, int tokenVersion, UUID sessionId,
+                           String tokenId, Instant expiresAt)
+        implements AuthenticatedPrincipal {
+
+    /**
+     * Email is used as the principal name, so {@code Authentication.getName()}
+     * keeps returning the email address.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,31 +1,55 @@
 package com.erp.valid.util;
 
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final JwtKeyRing keyRing;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public String generateToken(Long userId, String email, String role) {
+    // Built once at startup; immutable and safe to share across request threads.
+    // Keys are resolved per token from the kid header, so rotation needs no rebuild.
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return keyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * sessionId is the refresh token family the access token belongs to, so logout can end just that session
+     */
+    public String generateToken(Long userId, String email, String role, int tokenVersion, UUID sessionId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("email", email);
         claims.put("role", role);
+        claims.put("ver", tokenVersion);
+        claims.put("sid", sessionId.toString());
 
         return createToken(claims, email);
     }
@@ -34,58 +58,46 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
+
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey.signingKey())
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    public String extractEmail(String token) {
-        return extractClaims(token).getSubject();
-    }
-
-    public Long extractUserId(String token) {
-        return extractClaims(token).get("userId", Long.class);
-    }
-
-    public String extractRole(String token) {
-        return extractClaims(token).get("role", String.class);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaims(token).getExpiration();
-    }
-
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    public Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (JwtException e) {
-            return true;
-        }
-    }
-
-    public Boolean validateToken(String token) {
+    /**
+     * Parse and verify the token exactly once and return its claims as a typed principal.
+     * The parser rejects expired tokens, so no separate expiry check is needed.
+     * Returns empty if the signature, format or expiration is invalid.
+     */
+    public Optional<JwtPrincipal> verifyToken(String token) {
         try {
-            extractClaims(token);
-            return !isTokenExpired(token);
+            Claims claims = extractClaims(token);
+            String sessionId = claims.get("sid", String.class);
+            return Optional.of(new JwtPrincipal(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("ver", Integer.class) != null ? claims.get("ver", Integer.class) : 0,
+                    sessionId != null ? UUID.fromString(sessionId) : null,
+                    claims.getId(),
+                    claims.getExpiration().toInstant()
+            ));
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 }
\ No newline at end of file
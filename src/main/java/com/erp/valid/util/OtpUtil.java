@@ -1,9 +1,19 @@
 package com.erp.valid.util;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 public class OtpUtil {
 
+    /**
+     * Stored digest length: HMAC-SHA256 truncated to 128 bits
+     */
+    public static final int DIGEST_LENGTH = 16;
+
     private static final SecureRandom random = new SecureRandom();
 
     public static String generateOtp() {
@@ -11,4 +21,20 @@ public class OtpUtil {
 //        int otp =5555;
         return String.valueOf(otp);
     }
-}
\ No newline at end of file
+
+    /**
+     * Keyed digest of an OTP, bound to the email it was issued for.
+     * A leaked store cannot be reversed by enumerating the 900,000 possible codes without the key.
+     * Mac is not thread-safe, so a fresh instance is used per call.
+     */
+    public static byte[] digest(byte[] key, String email, String otp) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            byte[] full = mac.doFinal((EmailNormalizer.normalize(email) + ":" + otp).getBytes(StandardCharsets.UTF_8));
+            return Arrays.copyOf(full, DIGEST_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.erp.valid.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+public class TokenDigestUtil {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * SHA-256 of the token. MessageDigest is not thread-safe, so a fresh instance is used per call.
+     */
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * First 8 bytes of a digest as a long, for compact indexed lookups
+     */
+    public static long lookupKey(byte[] digest) {
+        return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+    }
+
+    /**
+     * Fixed-length (43 chars) cache key for a token of any length
+     */
+    public static String digestKey(String token) {
+        return ENCODER.encodeToString(sha256(token));
+    }
+}
@@ -0,0 +1,106 @@
+-- Initial schema. Portable between PostgreSQL and H2 in PostgreSQL mode.
+-- Must match the JPA mappings: the prod profile runs Hibernate with ddl-auto=validate.
+
+-- Role and Permission ids come from pooled sequences (Hibernate default allocation size 50)
+create sequence role_seq start with 1 increment by 50;
+create sequence permission_seq start with 1 increment by 50;
+
+create table role (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table permission (
+    id bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table role_permissions (
+    role_id bigint not null,
+    permission_id bigint not null,
+    primary key (permission_id, role_id),
+    constraint fk_role_permissions_role foreign key (role_id) references role (id),
+    constraint fk_role_permissions_permission foreign key (permission_id) references permission (id)
+);
+
+-- Unique constraints double as the lookup indexes for login/registration (email_normalized, username)
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    email_normalized varchar(255) not null,
+    password varchar(255) not null,
+    active boolean not null,
+    enabled boolean not null,
+    role_id bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    failed_login_attempts integer not null,
+    account_locked boolean not null,
+    lock_time timestamp(6),
+    token_version integer not null,
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email_normalized),
+    constraint fk_users_role foreign key (role_id) references role (id)
+);
+
+create table refresh_token (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    family_id uuid not null,
+    lookup_key bigint not null,
+    token_hash bytea not null,
+    expiry_date timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    last_used_at timestamp(6) with time zone,
+    user_agent varchar(255),
+    primary key (id),
+    constraint fk_refresh_token_user foreign key (user_id) references users (id)
+);
+
+-- Token lookup on refresh, per-user sessions, expiry purge
+create unique index idx_refresh_token_lookup_key on refresh_token (lookup_key);
+create index idx_refresh_token_user_id on refresh_token (user_id);
+create index idx_refresh_token_expiry_date on refresh_token (expiry_date);
+
+-- Every rotated-away refresh token digest of a family, not only the last one, for reuse detection
+create table refresh_token_superseded (
+    id bigint generated by default as identity,
+    family_id uuid not null,
+    lookup_key bigint not null,
+    token_hash bytea not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_refresh_token_superseded_lookup_key on refresh_token_superseded (lookup_key);
+create index idx_refresh_token_superseded_expires_at on refresh_token_superseded (expires_at);
+
+create table revoked_token (
+    jti varchar(36) not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (jti)
+);
+
+create index idx_revoked_token_expires_at on revoked_token (expires_at);
+
+create table email_outbox (
+    id bigint generated by default as identity,
+    recipient varchar(255) not null,
+    subject varchar(255) not null,
+    body varchar(4000) not null,
+    -- Values substituted into the body at send time (e.g. the OTP), so the stored body never holds them
+    params varchar(1000),
+    status varchar(16) not null,
+    attempts integer not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    last_error varchar(500),
+    primary key (id),
+    constraint ck_email_outbox_status check (status in ('PENDING', 'DEAD'))
+);
+
+create index idx_email_outbox_status_next_attempt on email_outbox (status, next_attempt_at);
@@ -0,0 +1,27 @@
+package com.erp.valid;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Full application context on the in-memory database, shared by every test that uses it.
+ * Hibernate statistics are on for statement counting, BCrypt runs at its cheapest cost and
+ * the outbox dispatcher stays idle unless a test calls it. {@link TestUsers} is available for fixtures.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.password.bcrypt.strength=4",
+        "email.outbox.enabled=false"
+})
+@Import(TestUsers.class)
+public @interface IntegrationTest {
+}
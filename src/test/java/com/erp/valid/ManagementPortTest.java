@@ -0,0 +1,59 @@
+package com.erp.valid;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Actuator endpoints are served on the management port only, never on the public one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "security.password.bcrypt.strength=4",
+        "email.outbox.enabled=false"
+})
+@AutoConfigureObservability(tracing = false)
+@DisplayName("Management Port Tests")
+class ManagementPortTest {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Should serve /actuator/prometheus on the management port and not on the public port")
+    void prometheus_ShouldOnlyBeOnManagementPort() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody()).contains("auth_jwt_verify_seconds");
+
+        ResponseEntity<String> publicPort = restTemplate.getForEntity(
+                "http://localhost:" + serverPort + "/actuator/prometheus", String.class);
+        assertThat(publicPort.getStatusCode()).isNotEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Should report health UP on the default profile without Redis or SMTP")
+    void health_ShouldBeUpWithoutRedis() {
+        ResponseEntity<String> health = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/health", String.class);
+
+        assertThat(health.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(health.getBody()).contains("\"status\":\"UP\"");
+    }
+}
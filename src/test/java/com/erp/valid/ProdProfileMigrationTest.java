@@ -0,0 +1,67 @@
+package com.erp.valid;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the prod profile on an in-memory H2 in PostgreSQL mode. The context only loads if the
+ * Flyway migrations produce exactly the schema Hibernate expects (ddl-auto=validate).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodprofile;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "security.password.bcrypt.strength=4",
+        "email.outbox.enabled=false"
+})
+@ActiveProfiles("prod")
+@DisplayName("Prod Profile Migration Tests")
+class ProdProfileMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should apply the migrations and create the hot-path indexes")
+    void migrations_ShouldCreateLookupIndexes() {
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("1");
+
+        List<String> indexes = jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_schema = 'public'",
+                String.class);
+
+        assertThat(indexes).contains(
+                "idx_refresh_token_lookup_key",
+                "idx_refresh_token_expiry_date",
+                "idx_refresh_token_user_id",
+                "idx_refresh_token_superseded_lookup_key",
+                "idx_revoked_token_expires_at",
+                "idx_email_outbox_status_next_attempt");
+        // Unique constraints on users.username and users.email_normalized are backed by indexes
+        assertThat(indexes).anyMatch(name -> name.startsWith("uk_users_username"));
+        assertThat(indexes).anyMatch(name -> name.startsWith("uk_users_email"));
+    }
+
+    @Test
+    @DisplayName("Should enable JDBC batching with ordered inserts and updates")
+    void hibernate_ShouldBatchStatements() {
+        assertThat(entityManagerFactory.getProperties())
+                .containsEntry("hibernate.jdbc.batch_size", "50")
+                .containsEntry("hibernate.order_inserts", "true")
+                .containsEntry("hibernate.order_updates", "true");
+    }
+}
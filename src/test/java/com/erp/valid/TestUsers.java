@@ -0,0 +1,47 @@
+package com.erp.valid;
+
+import com.erp.valid.entity.User;
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.RoleRepository;
+import com.erp.valid.repository.SupersededRefreshTokenRepository;
+import com.erp.valid.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Saved users for integration tests, and the cleanup of everything that references them.
+ * Imported by {@link IntegrationTest}.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestUsers {
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SupersededRefreshTokenRepository supersededRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * An active ROLE_USER account whose password is hashed with the application's encoder
+     */
+    public User create(String username, String email, String password) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setRole(roleRepository.findByName("ROLE_USER").orElseThrow());
+        user.setActive(true);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Delete every superseded digest, session and user
+     */
+    public void deleteAll() {
+        supersededRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
@@ -0,0 +1,110 @@
+package com.erp.valid.config;
+
+import com.erp.valid.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BoundedPasswordEncoder Unit Tests")
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Should delegate and record per-operation timings")
+    void matches_ShouldDelegateAndRecordTimer() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 1_000, meterRegistry);
+        release.countDown();
+
+        assertThat(encoder.matches("secret", "hash:secret")).isTrue();
+        assertThat(encoder.encode("secret")).isEqualTo("hash:secret");
+        assertThat(meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject immediately once pool and queue are full")
+    void matches_WhenSaturated_ShouldThrowServiceUnavailable() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 5_000, meterRegistry);
+
+        // One task running, one queued
+        callers.submit(() -> encoder.matches("a", "hash:a"));
+        callers.submit(() -> encoder.matches("b", "hash:b"));
+        awaitQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> encoder.matches("c", "hash:c"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+        assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+        // Saturation is visible on the pool's executor meters
+        assertThat(meterRegistry.get("executor.active").tag("name", "password-hash").gauge().value())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "password-hash").gauge().value())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count a caller timeout separately from queue-full rejections")
+    void matches_WhenTimedOut_ShouldCountTimeout() {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 50, meterRegistry);
+
+        assertThatThrownBy(() -> encoder.matches("a", "hash:a"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("auth.password.timeout").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isZero();
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (meterRegistry.get("auth.password.queue.depth").gauge().value() >= depth) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Queue never reached depth " + depth);
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
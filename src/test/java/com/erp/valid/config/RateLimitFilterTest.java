@@ -0,0 +1,146 @@
+package com.erp.valid.config;
+
+import com.erp.valid.service.InMemoryRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimitFilter Unit Tests")
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(new InMemoryRateLimiter(60), new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "periodSeconds", 60L);
+        ReflectionTestUtils.setField(filter, "loginPerIp", 20);
+        ReflectionTestUtils.setField(filter, "loginPerEmail", 3);
+        ReflectionTestUtils.setField(filter, "resendOtpPerIp", 2);
+        ReflectionTestUtils.setField(filter, "resendOtpPerEmail", 2);
+    }
+
+    @Test
+    @DisplayName("Should reject with 429 and Retry-After once the per-email budget is spent")
+    void login_OverEmailBudget_ShouldReturn429() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = send(login("john@example.com", "10.0.0." + i), chain);
+            assertThat(response.getStatus()).isEqualTo(200);
+            // Body is still readable downstream
+            assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("john@example.com");
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = send(login("JOHN@example.com", "10.0.0.9"), chain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+        assertThat(chain.getRequest()).isNull();
+
+        // Other accounts are unaffected
+        assertThat(send(login("jane@example.com", "10.0.0.9"), new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should throttle per IP using the query-string email endpoint budget")
+    void resendOtp_OverIpBudget_ShouldReturn429() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertThat(send(resendOtp("user" + i + "@example.com"), new MockFilterChain()).getStatus())
+                    .isEqualTo(200);
+        }
+        assertThat(send(resendOtp("other@example.com"), new MockFilterChain()).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Should reject bodies over the inspection limit with 413 instead of truncating them")
+    void login_OversizedBody_ShouldReturn413() throws Exception {
+        MockHttpServletRequest request = login("john@example.com", "10.0.0.1");
+        byte[] padding = new byte[16 * 1024];
+        Arrays.fill(padding, (byte) ' ');
+        request.setContent(concat(padding, request.getContentAsByteArray()));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = send(request, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject an oversized chunked body that has no Content-Length")
+    void login_OversizedChunkedBody_ShouldReturn413() throws Exception {
+        byte[] body = new byte[16 * 1024 + 1];
+        Arrays.fill(body, (byte) ' ');
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(body);
+
+        MockFilterChain chain = new MockFilterChain();
+        assertThat(send(request, chain).getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should let the controller read the cached body through getReader")
+    void login_BodyReadThroughReader_ShouldMatchOriginal() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        send(login("john@example.com", "10.0.0.1"), chain);
+
+        assertThat(chain.getRequest().getReader().readLine())
+                .isEqualTo("{\"email\":\"john@example.com\",\"password\":\"secret\"}");
+    }
+
+    @Test
+    @DisplayName("Should not filter unthrottled endpoints")
+    void profile_ShouldPassThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        send(new MockHttpServletRequest("GET", "/api/auth/profile"), chain);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static MockHttpServletRequest login(String email, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest resendOtp(String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/resend-otp");
+        request.setRemoteAddr("10.1.1.1");
+        request.setParameter("email", email);
+        return request;
+    }
+}
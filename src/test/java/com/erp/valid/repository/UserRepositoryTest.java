@@ -1,16 +1,46 @@
 package com.erp.valid.repository;
 
+import com.erp.valid.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
-import static org.junit.jupiter.api.Assertions.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
+@DataJpaTest
+@DisplayName("UserRepository Tests")
 class UserRepositoryTest {
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("john_doe");
+        user.setEmail("John.Doe@Example.com");
+        user.setPassword("hash");
+        userRepository.save(user);
+    }
+
     @Test
+    @DisplayName("Should find a user by exact username")
     void findByUsername() {
+        assertThat(userRepository.findByUsername("john_doe")).isPresent();
+        assertThat(userRepository.findByUsername("nobody")).isEmpty();
     }
 
     @Test
+    @DisplayName("Should find a user by email regardless of case and surrounding spaces")
     void findByEmail() {
+        assertThat(userRepository.findByEmail("john.doe@example.com"))
+                .hasValueSatisfying(user -> {
+                    assertThat(user.getEmail()).isEqualTo("John.Doe@Example.com");
+                    assertThat(user.getEmailNormalized()).isEqualTo("john.doe@example.com");
+                });
+        assertThat(userRepository.findByEmail(" JOHN.DOE@EXAMPLE.COM ")).isPresent();
+        assertThat(userRepository.findByEmail("jane@example.com")).isEmpty();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.erp.valid.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behaviour every {@link OtpStore} must share; subclasses supply the store under test.
+ */
+abstract class AbstractOtpStoreTest {
+
+    static final String EMAIL = "otp-test@example.com";
+    static final int MAX_ATTEMPTS = 3;
+    static final String SECRET = "otp-test-secret";
+
+    private OtpStore otpStore;
+
+    abstract OtpStore createStore();
+
+    @BeforeEach
+    void setUpStore() {
+        otpStore = createStore();
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many concurrent verifies consume the OTP")
+    void verifyAndConsume_Concurrently_ShouldSucceedOnce() throws Exception {
+        otpStore.store(EMAIL, "123456");
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<OtpStore.VerifyResult>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return otpStore.verifyAndConsume(EMAIL, "123456");
+                }));
+            }
+            start.countDown();
+
+            List<OtpStore.VerifyResult> outcomes = new ArrayList<>();
+            for (Future<OtpStore.VerifyResult> result : results) {
+                outcomes.add(result.get(5, TimeUnit.SECONDS));
+            }
+            assertThat(outcomes).containsOnlyOnce(OtpStore.VerifyResult.VALID);
+            assertThat(outcomes).filteredOn(r -> r != OtpStore.VerifyResult.VALID)
+                    .containsOnly(OtpStore.VerifyResult.EXPIRED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should discard the OTP once max attempts are used up")
+    void verifyAndConsume_WithWrongCodes_ShouldExhaustAttempts() {
+        otpStore.store(EMAIL, "123456");
+
+        assertThat(otpStore.verifyAndConsume(EMAIL, "000000")).isEqualTo(OtpStore.VerifyResult.INVALID);
+        assertThat(otpStore.verifyAndConsume(EMAIL, "000000")).isEqualTo(OtpStore.VerifyResult.INVALID);
+        assertThat(otpStore.verifyAndConsume(EMAIL, "000000"))
+                .isEqualTo(OtpStore.VerifyResult.TOO_MANY_ATTEMPTS);
+        assertThat(otpStore.verifyAndConsume(EMAIL, "123456")).isEqualTo(OtpStore.VerifyResult.EXPIRED);
+    }
+}
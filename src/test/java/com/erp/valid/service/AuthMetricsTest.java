@@ -0,0 +1,79 @@
+package com.erp.valid.service;
+
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AuthMetrics Unit Tests")
+class AuthMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics authMetrics = new AuthMetrics(registry);
+
+    @Test
+    @DisplayName("Should time successful operations and return their result")
+    void record_Success_ShouldReturnResultAndTagSuccess() {
+        String result = authMetrics.record("login", () -> "token");
+
+        assertThat(result).isEqualTo("token");
+        assertThat(count("login", "success")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should tag rejected, unavailable and failed operations and rethrow")
+    void record_Failure_ShouldTagOutcomeAndRethrow() {
+        assertThatThrownBy(() -> authMetrics.record("login", () -> {
+            throw new ConflictException("Invalid email or password");
+        })).isInstanceOf(ConflictException.class);
+        assertThatThrownBy(() -> authMetrics.record("login", () -> {
+            throw new ServiceUnavailableException("Busy");
+        })).isInstanceOf(ServiceUnavailableException.class);
+        assertThatThrownBy(() -> authMetrics.record("logout", (Runnable) () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(count("login", "rejected")).isEqualTo(1);
+        assertThat(count("login", "unavailable")).isEqualTo(1);
+        assertThat(count("logout", "error")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should register every outcome of an operation once and reuse the timers")
+    void record_Repeated_ShouldReuseRegisteredTimers() {
+        authMetrics.record("login", () -> "token");
+        Timer success = registry.get("auth.operation").tag("operation", "login").tag("outcome", "success").timer();
+
+        authMetrics.record("login", () -> "token");
+
+        assertThat(registry.get("auth.operation").tag("operation", "login").timers()).hasSize(4);
+        assertThat(registry.get("auth.operation").tag("operation", "login").tag("outcome", "success").timer())
+                .isSameAs(success);
+        assertThat(success.count()).isEqualTo(2);
+        assertThat(count("login", "rejected")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count lockout events by type")
+    void lockout_ShouldIncrementCounterPerEvent() {
+        authMetrics.lockout("account_locked");
+        authMetrics.lockout("ip_blocked");
+        authMetrics.lockout("ip_blocked");
+
+        assertThat(registry.get("auth.lockout").tag("event", "account_locked").counter().count()).isEqualTo(1);
+        assertThat(registry.get("auth.lockout").tag("event", "ip_blocked").counter().count()).isEqualTo(2);
+    }
+
+    private long count(String operation, String outcome) {
+        return registry.get("auth.operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,146 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.EmailOutbox;
+import com.erp.valid.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delivers the outbox to a local GreenMail SMTP server.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false",
+        "email.from=no-reply@example.com",
+        "email.outbox.enabled=false",
+        "email.outbox.max-attempts=2"
+})
+@DisplayName("EmailOutboxDispatcher Integration Tests")
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should deliver queued emails in one batch and clear the outbox")
+    void dispatch_ShouldDeliverAndDeleteQueuedEmails() throws Exception {
+        emailService.sendOtpEmail("one@example.com", "111111");
+        emailService.sendOtpEmail("two@example.com", "222222");
+        emailService.sendWelcomeEmail("three@example.com", "three");
+
+        int delivered = dispatcher.dispatch();
+
+        assertThat(delivered).isEqualTo(3);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received).extracting(MimeMessage::getSubject)
+                .contains("Email Verification - OTP Code", "Welcome to AUTH System!");
+        assertThat(received).extracting(GreenMailUtil::getBody)
+                .anyMatch(body -> body.contains("Your OTP code is: 111111"))
+                .anyMatch(body -> body.contains("Your OTP code is: 222222"));
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep the OTP out of the stored body and drop it when the email is dead-lettered")
+    void sendOtpEmail_ShouldNeverLeaveTheCodeInTheOutbox() {
+        greenMail.stop();
+        emailService.sendOtpEmail("secret@example.com", "654321");
+
+        EmailOutbox queued = outboxRepository.findAll().get(0);
+        assertThat(queued.getBody()).doesNotContain("654321").contains("{otp}");
+
+        dispatcher.dispatch();
+        EmailOutbox retry = outboxRepository.findAll().get(0);
+        retry.setNextAttemptAt(Instant.now());
+        outboxRepository.save(retry);
+        dispatcher.dispatch();
+
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(dead -> {
+            assertThat(dead.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+            assertThat(dead.getBody()).doesNotContain("654321");
+            assertThat(dead.getParams()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should back off on SMTP failure and dead-letter after max attempts")
+    void dispatch_WhenSmtpIsDown_ShouldRetryThenDeadLetter() {
+        greenMail.stop();
+        emailService.sendOtpEmail("down@example.com", "333333");
+
+        assertThat(dispatcher.dispatch()).isZero();
+        EmailOutbox queued = outboxRepository.findAll().get(0);
+        assertThat(queued.getStatus()).isEqualTo(EmailOutbox.Status.PENDING);
+        assertThat(queued.getAttempts()).isEqualTo(1);
+        assertThat(queued.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(queued.getLastError()).isNotBlank();
+
+        queued.setNextAttemptAt(Instant.now());
+        outboxRepository.save(queued);
+        dispatcher.dispatch();
+
+        EmailOutbox dead = outboxRepository.findAll().get(0);
+        assertThat(dead.getStatus()).isEqualTo(EmailOutbox.Status.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(2);
+        assertThat(dispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip rows another dispatcher has locked instead of sending them twice")
+    void dispatch_ShouldSkipRowsLockedByAnotherDispatcher() throws Exception {
+        emailService.sendOtpEmail("claimed@example.com", "444444");
+
+        int deliveredWhileLocked = transactionTemplate.execute(status -> {
+            // Holds the row lock the way another node's claim transaction would
+            assertThat(outboxRepository.lockDue(Instant.now(), 10)).hasSize(1);
+            try {
+                return CompletableFuture.supplyAsync(dispatcher::dispatch).get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(deliveredWhileLocked).isZero();
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+}
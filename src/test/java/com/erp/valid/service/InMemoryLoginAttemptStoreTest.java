@@ -0,0 +1,63 @@
+package com.erp.valid.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("InMemoryLoginAttemptStore Unit Tests")
+class InMemoryLoginAttemptStoreTest {
+
+    private static final int THREADS = 16;
+    private static final int FAILURES_PER_THREAD = 500;
+
+    private final InMemoryLoginAttemptStore store = new InMemoryLoginAttemptStore(60);
+
+    @Test
+    @DisplayName("Should count every failure exactly once under parallel updates")
+    void recordFailure_Concurrently_ShouldCountEveryFailure() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<Integer> observedCounts = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < FAILURES_PER_THREAD; i++) {
+                    observedCounts.add(store.recordFailure("email:shared@example.com"));
+                    store.recordFailure("ip:10.0.0." + (i % 4));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int total = THREADS * FAILURES_PER_THREAD;
+        assertThat(store.failureCount("email:shared@example.com")).isEqualTo(total);
+        // Every increment observed a distinct count, so no update was lost or merged
+        assertThat(observedCounts).hasSize(total);
+        assertThat(store.failureCount("ip:10.0.0.0")).isEqualTo(total / 4);
+    }
+
+    @Test
+    @DisplayName("Should forget failures after reset")
+    void reset_ShouldClearCount() {
+        store.recordFailure("email:john@example.com");
+        store.recordFailure("email:john@example.com");
+
+        store.reset("email:john@example.com");
+
+        assertThat(store.failureCount("email:john@example.com")).isZero();
+        assertThat(store.recordFailure("email:john@example.com")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.erp.valid.service;
+
+import org.junit.jupiter.api.DisplayName;
+
+@DisplayName("InMemoryOtpStore Tests")
+class InMemoryOtpStoreTest extends AbstractOtpStoreTest {
+
+    @Override
+    OtpStore createStore() {
+        return new InMemoryOtpStore(SECRET, 1, MAX_ATTEMPTS, 1_000);
+    }
+}
@@ -0,0 +1,51 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.dto.LoginRequest;
+import com.erp.valid.exception.ConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Per-address blocking against credential stuffing, through the real lockout service and attempt store.
+ */
+@IntegrationTest
+@DisplayName("Login Lockout Tests")
+class LoginLockoutTest {
+
+    private static final String CLIENT_IP = "203.0.113.9";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountLockoutService lockoutService;
+
+    @Value("${security.lockout.max-attempts-per-ip}")
+    private int maxAttemptsPerIp;
+
+    @AfterEach
+    void tearDown() {
+        lockoutService.unblockIp(CLIENT_IP);
+    }
+
+    @Test
+    @DisplayName("Should block an address that only tries emails with no account")
+    void login_WithUnknownEmailsOnly_ShouldBlockIp() {
+        for (int i = 0; i < maxAttemptsPerIp; i++) {
+            LoginRequest request = new LoginRequest("nobody" + i + "@example.com", "password123");
+            assertThatThrownBy(() -> userService.login(request, CLIENT_IP, null))
+                    .isInstanceOf(ConflictException.class)
+                    .hasMessage("Invalid email or password");
+        }
+
+        assertThatThrownBy(() -> userService.login(new LoginRequest("nobody@example.com", "password123"), CLIENT_IP, null))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Too many failed login attempts. Please try again later.");
+    }
+}
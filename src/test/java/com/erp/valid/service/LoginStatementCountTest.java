@@ -0,0 +1,155 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.TestUsers;
+import com.erp.valid.dto.AuthResponse;
+import com.erp.valid.dto.LoginRequest;
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guards the number of SQL statements each login outcome costs.
+ */
+@IntegrationTest
+@DisplayName("Login SQL Statement Count")
+class LoginStatementCountTest {
+
+    private static final String EMAIL = "count@example.com";
+    private static final String PASSWORD = "password123";
+    private static final String CLIENT_IP = "127.0.0.1";
+    private static final String USER_AGENT = "JUnit";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private AccountLockoutService lockoutService;
+
+    @Autowired
+    private TestUsers testUsers;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        testUsers.create("countuser", EMAIL, PASSWORD);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testUsers.deleteAll();
+        lockoutService.unlockAccount(EMAIL);
+        lockoutService.unblockIp(CLIENT_IP);
+    }
+
+    @Test
+    @DisplayName("Login from a second device: user SELECT + session INSERT + session id SELECT")
+    void login_Success_WithExistingSession() {
+        userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT);
+
+        statistics.clear();
+        AuthResponse response = userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT);
+
+        assertThat(response.getRefreshToken()).isNotNull();
+        assertThat(statementCount()).isEqualTo(3);
+        assertThat(refreshTokenRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("First login: user SELECT + session INSERT + session id SELECT")
+    void login_Success_FirstToken() {
+        statistics.clear();
+        userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT);
+
+        assertThat(statementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Login beyond the session cap: the oldest sessions and their digests go in two bulk DELETEs")
+    void login_Success_EvictsOldestSession() {
+        for (int i = 0; i < 5; i++) {
+            userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT);
+        }
+
+        statistics.clear();
+        userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT);
+
+        assertThat(statementCount()).isEqualTo(5);
+        assertThat(refreshTokenRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Wrong password: user SELECT only, the failure is counted outside the database")
+    void login_WrongPassword() {
+        statistics.clear();
+        assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, USER_AGENT))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("4 attempts remaining");
+
+        assertThat(statementCount()).isEqualTo(1);
+        // The failure was counted: the next one has one attempt fewer left
+        assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, USER_AGENT))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("3 attempts remaining");
+    }
+
+    @Test
+    @DisplayName("Failure that triggers the lock: user SELECT + users SELECT and UPDATE for the lock")
+    void login_WrongPassword_Locking() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, USER_AGENT))
+                    .isInstanceOf(ConflictException.class);
+        }
+
+        statistics.clear();
+        assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, USER_AGENT))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Account has been locked");
+
+        assertThat(statementCount()).isEqualTo(3);
+        assertThat(userRepository.findByEmail(EMAIL).orElseThrow().isAccountLocked()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Locked account: user SELECT only")
+    void login_LockedAccount() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, USER_AGENT))
+                    .isInstanceOf(ConflictException.class);
+        }
+
+        statistics.clear();
+        assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, USER_AGENT))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Account is locked");
+
+        assertThat(statementCount()).isEqualTo(1);
+    }
+
+    private long statementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,43 @@
+package com.erp.valid.service;
+
+import com.erp.valid.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs against a local Redis on the default port; skipped when none is reachable.
+ */
+@DisplayName("RedisOtpStore Tests")
+class RedisOtpStoreTest extends AbstractOtpStoreTest {
+
+    private LettuceConnectionFactory connectionFactory;
+
+    @Override
+    OtpStore createStore() {
+        connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        assumeTrue(isReachable(redisTemplate), "Redis is not available on localhost:6379");
+        return new RedisOtpStore(new CacheConfig().binaryRedisTemplate(connectionFactory), SECRET, 1, MAX_ATTEMPTS,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    private static boolean isReachable(StringRedisTemplate redisTemplate) {
+        try {
+            redisTemplate.hasKey("ping");
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
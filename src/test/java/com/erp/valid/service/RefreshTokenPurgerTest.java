@@ -0,0 +1,103 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.TestUsers;
+import com.erp.valid.entity.RefreshToken;
+import com.erp.valid.entity.SupersededRefreshToken;
+import com.erp.valid.entity.User;
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.SupersededRefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+@DisplayName("RefreshTokenPurger Integration Tests")
+class RefreshTokenPurgerTest {
+
+    @Autowired
+    private RefreshTokenPurger purger;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private SupersededRefreshTokenRepository supersededRepository;
+
+    @Autowired
+    private TestUsers testUsers;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Object originalBatchSize;
+    private Object originalPauseMs;
+
+    @BeforeEach
+    void setUp() {
+        originalBatchSize = ReflectionTestUtils.getField(purger, "batchSize");
+        originalPauseMs = ReflectionTestUtils.getField(purger, "pauseMs");
+        ReflectionTestUtils.setField(purger, "batchSize", 2);
+        ReflectionTestUtils.setField(purger, "pauseMs", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(purger, "batchSize", originalBatchSize);
+        ReflectionTestUtils.setField(purger, "pauseMs", originalPauseMs);
+        testUsers.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should delete expired tokens across several batches and keep live ones")
+    void purgeExpired_ShouldDeleteOnlyExpiredTokens() {
+        User user = testUsers.create("purgeuser", "purge@example.com", "unused");
+
+        for (int i = 0; i < 5; i++) {
+            refreshTokenService.createRefreshToken(user, "device-" + i);
+        }
+        List<RefreshToken> sessions = refreshTokenRepository.findAll();
+        sessions.subList(0, 4).forEach(session ->
+                session.setExpiryDate(Instant.now().minus(1, ChronoUnit.DAYS)));
+        refreshTokenRepository.saveAll(sessions);
+        double purgedBefore = meterRegistry.counter("auth.refresh.purged").count();
+
+        int purged = purger.purgeExpired();
+
+        assertThat(purged).isEqualTo(4);
+        assertThat(refreshTokenRepository.findAll()).singleElement()
+                .satisfies(session -> assertThat(session.getExpiryDate()).isAfter(Instant.now()));
+        assertThat(meterRegistry.counter("auth.refresh.purged").count() - purgedBefore).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should delete superseded digests once the tokens they describe have expired")
+    void purgeExpired_ShouldDeleteExpiredSupersededDigests() {
+        UUID familyId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            supersededRepository.save(new SupersededRefreshToken(
+                    familyId, (long) i, new byte[32], Instant.now().minus(1, ChronoUnit.DAYS)));
+        }
+        supersededRepository.save(new SupersededRefreshToken(
+                familyId, 3L, new byte[32], Instant.now().plus(1, ChronoUnit.DAYS)));
+
+        purger.purgeExpired();
+
+        assertThat(supersededRepository.findAll()).singleElement()
+                .satisfies(digest -> assertThat(digest.getLookupKey()).isEqualTo(3L));
+    }
+}
@@ -0,0 +1,193 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.TestUsers;
+import com.erp.valid.entity.RefreshToken;
+import com.erp.valid.entity.User;
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.SupersededRefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+@DisplayName("RefreshTokenService Integration Tests")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private SupersededRefreshTokenRepository supersededRepository;
+
+    @Autowired
+    private TestUsers testUsers;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = testUsers.create("refreshuser", "refresh@example.com", "unused");
+    }
+
+    @AfterEach
+    void tearDown() {
+        testUsers.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should store only a digest and rotate within the same family")
+    void rotate_ShouldIssueNewTokenInSameFamily() {
+        String first = refreshTokenService.createRefreshToken(user, "JUnit").token();
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(first);
+
+        assertThat(rotated.token()).isNotEqualTo(first);
+        assertThat(rotated.user().getId()).isEqualTo(user.getId());
+        assertThat(refreshTokenRepository.findAll()).singleElement()
+                .satisfies(row -> assertThat(new String(row.getTokenHash())).doesNotContain(rotated.token()));
+        assertThat(refreshTokenService.rotate(rotated.token()).token()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole family when a rotated token is replayed")
+    void rotate_WithReusedToken_ShouldRevokeFamily() {
+        String first = refreshTokenService.createRefreshToken(user, "JUnit").token();
+        String second = refreshTokenService.rotate(first).token();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("reuse detected");
+
+        assertThat(refreshTokenRepository.count()).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("not in database");
+    }
+
+    @Test
+    @DisplayName("Should revoke the family when a token from an older rotation is replayed")
+    void rotate_WithTokenFromOlderRotation_ShouldRevokeFamily() {
+        String first = refreshTokenService.createRefreshToken(user, "JUnit").token();
+        String second = refreshTokenService.rotate(first).token();
+        String third = refreshTokenService.rotate(second).token();
+        String other = refreshTokenService.createRefreshToken(user, "other-device").token();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("reuse detected");
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(third))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("not in database");
+        assertThat(supersededRepository.count()).isZero();
+        // Other sessions of the user are left alone
+        assertThat(refreshTokenService.rotate(other).token()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should reject unknown tokens")
+    void rotate_WithUnknownToken_ShouldThrow() {
+        refreshTokenService.createRefreshToken(user, "JUnit");
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("not-a-real-token"))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("not in database");
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep one session per device up to the cap and evict the oldest")
+    void createRefreshToken_BeyondCap_ShouldEvictOldestSession() {
+        String oldest = refreshTokenService.createRefreshToken(user, "device-0").token();
+        oldest = refreshTokenService.rotate(oldest).token();
+        for (int i = 1; i <= 5; i++) {
+            refreshTokenService.createRefreshToken(user, "device-" + i);
+        }
+
+        assertThat(refreshTokenService.listSessions(user.getId()))
+                .hasSize(5)
+                .extracting(RefreshToken::getUserAgent)
+                .doesNotContain("device-0")
+                .first().isEqualTo("device-5");
+        assertThat(supersededRepository.count()).isZero();
+        String evicted = oldest;
+        assertThatThrownBy(() -> refreshTokenService.rotate(evicted))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    @DisplayName("Should revoke a single session without touching the others")
+    void revokeSession_ShouldDeleteOnlyThatSession() {
+        String laptop = refreshTokenService.createRefreshToken(user, "laptop").token();
+        refreshTokenService.rotate(laptop);
+        String phone = refreshTokenService.createRefreshToken(user, "phone").token();
+        String phoneRotated = refreshTokenService.rotate(phone).token();
+        Long laptopId = refreshTokenService.listSessions(user.getId()).get(1).getId();
+
+        refreshTokenService.revokeSession(user.getId(), laptopId);
+
+        assertThat(refreshTokenService.listSessions(user.getId()))
+                .singleElement()
+                .extracting(RefreshToken::getUserAgent).isEqualTo("phone");
+        // Only the phone's digest is left, so a replayed laptop token is simply unknown
+        assertThat(supersededRepository.count()).isEqualTo(1);
+        assertThatThrownBy(() -> refreshTokenService.rotate(laptop))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("not in database");
+        assertThat(refreshTokenService.rotate(phoneRotated).token()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should delete every session of the user with its superseded digests")
+    void deleteByUserId_ShouldDeleteSupersededDigests() {
+        String laptop = refreshTokenService.createRefreshToken(user, "laptop").token();
+        refreshTokenService.rotate(laptop);
+        refreshTokenService.rotate(refreshTokenService.createRefreshToken(user, "phone").token());
+
+        refreshTokenService.deleteByUserId(user.getId());
+
+        assertThat(refreshTokenRepository.count()).isZero();
+        assertThat(supersededRepository.count()).isZero();
+        assertThatThrownBy(() -> refreshTokenService.rotate(laptop))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("not in database");
+    }
+
+    @Test
+    @DisplayName("Should delete only the family of the logged-out session")
+    void deleteFamily_ShouldKeepOtherSessions() {
+        RefreshTokenService.IssuedRefreshToken laptop = refreshTokenService.createRefreshToken(user, "laptop");
+        String phone = refreshTokenService.createRefreshToken(user, "phone").token();
+        refreshTokenService.rotate(laptop.token());
+
+        refreshTokenService.deleteFamily(user.getId(), laptop.familyId());
+
+        assertThat(refreshTokenService.listSessions(user.getId()))
+                .singleElement()
+                .extracting(RefreshToken::getUserAgent).isEqualTo("phone");
+        assertThat(supersededRepository.count()).isZero();
+        assertThat(refreshTokenService.rotate(phone).token()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should not revoke a session owned by another user")
+    void revokeSession_OfAnotherUser_ShouldThrow() {
+        refreshTokenService.createRefreshToken(user, "laptop");
+        Long sessionId = refreshTokenService.listSessions(user.getId()).get(0).getId();
+
+        assertThatThrownBy(() -> refreshTokenService.revokeSession(user.getId() + 1, sessionId))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Session not found");
+        assertThat(refreshTokenRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,137 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.dto.RegisterRequest;
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.repository.EmailOutboxRepository;
+import com.erp.valid.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Duplicate signups are caught by one existence check before the password is hashed;
+ * signups that race past it are rejected by the unique constraints.
+ */
+@IntegrationTest
+@DisplayName("Registration Constraint Integration Tests")
+class RegistrationConstraintTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Resolve and cache the default role id
+        userService.registerUser(request("warmup", "warmup@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Registration: one existence SELECT + user INSERT + outbox INSERT, no role SELECT")
+    void register_ShouldCheckOnceThenInsert() {
+        statistics.clear();
+
+        userService.registerUser(request("newuser", "new@example.com"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should map unique constraint violations to the existing conflict messages")
+    void register_Duplicate_ShouldThrowConflictException() {
+        userService.registerUser(request("taken", "taken@example.com"));
+
+        assertThatThrownBy(() -> userService.registerUser(request("taken", "other@example.com")))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Username already exists");
+        assertThatThrownBy(() -> userService.registerUser(request("other", "taken@example.com")))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Email already exists");
+    }
+
+    @Test
+    @DisplayName("Should treat emails differing only in case as the same account")
+    void register_EmailInDifferentCase_ShouldThrowConflictException() {
+        userService.registerUser(request("john", "John@Example.com"));
+
+        assertThatThrownBy(() -> userService.registerUser(request("john2", "john@example.COM")))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Email already exists");
+        assertThat(userRepository.findByEmail("JOHN@example.com"))
+                .hasValueSatisfying(user -> assertThat(user.getEmail()).isEqualTo("John@Example.com"));
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of several concurrent signups with the same email succeed")
+    void register_Concurrently_ShouldCreateOneUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            String username = "racer" + t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    userService.registerUser(request(username, "race@example.com"));
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(userRepository.findByEmail("race@example.com")).isPresent();
+    }
+
+    private static RegisterRequest request(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("password123");
+        request.setConfirmPassword("password123");
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package com.erp.valid.service;
+
+import com.erp.valid.entity.Permission;
+import com.erp.valid.entity.Role;
+import com.erp.valid.repository.RoleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoleAuthorityService Unit Tests")
+class RoleAuthorityServiceTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleAuthorityService roleAuthorityService;
+
+    @Test
+    @DisplayName("Should grant the role and each of its permissions")
+    void authoritiesFor_LoadedRole_ShouldIncludePermissions() {
+        when(roleRepository.findAllWithPermissions())
+                .thenReturn(List.of(role("ROLE_ADMIN", "user:read", "user:write")));
+        roleAuthorityService.refresh();
+
+        List<GrantedAuthority> authorities = roleAuthorityService.authoritiesFor("ROLE_ADMIN");
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "user:read", "user:write");
+        assertThatThrownBy(() -> authorities.add(authorities.get(0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Should grant only the role itself when it is not loaded")
+    void authoritiesFor_UnknownRole_ShouldGrantRoleOnly() {
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of());
+        roleAuthorityService.refresh();
+
+        assertThat(roleAuthorityService.authoritiesFor("ROLE_USER"))
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("Should reload the map when role permissions change")
+    void onRolePermissionsChanged_ShouldReload() {
+        when(roleRepository.findAllWithPermissions())
+                .thenReturn(List.of(role("ROLE_USER")))
+                .thenReturn(List.of(role("ROLE_USER", "profile:read")));
+        roleAuthorityService.refresh();
+
+        roleAuthorityService.onRolePermissionsChanged(new RolePermissionsChangedEvent());
+
+        assertThat(roleAuthorityService.authoritiesFor("ROLE_USER"))
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "profile:read");
+        verify(roleRepository, times(2)).findAllWithPermissions();
+    }
+
+    private static Role role(String name, String... permissions) {
+        Role role = new Role();
+        role.setName(name);
+        for (String permissionName : permissions) {
+            Permission permission = new Permission();
+            permission.setName(permissionName);
+            role.getPermissions().add(permission);
+        }
+        return role;
+    }
+}
@@ -0,0 +1,85 @@
+package com.erp.valid.service;
+
+import com.erp.valid.config.CacheConfig;
+import com.erp.valid.util.JwtPrincipal;
+import com.erp.valid.util.JwtUtil;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenCacheService Unit Tests")
+class TokenCacheServiceTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+
+    private TokenCacheService tokenCacheService;
+
+    @BeforeEach
+    void setUp() {
+        tokenCacheService = new TokenCacheService(CacheConfig.verifiedTokenCache(100, ticker), jwtUtil);
+    }
+
+    @Test
+    @DisplayName("Should verify the signature once and serve repeats from the cache")
+    void verify_RepeatedToken_ShouldHitCache() {
+        JwtPrincipal principal = principal(Instant.now().plus(Duration.ofMinutes(15)));
+        when(jwtUtil.verifyToken(TOKEN)).thenReturn(Optional.of(principal));
+
+        assertThat(tokenCacheService.verify(TOKEN)).contains(principal);
+        assertThat(tokenCacheService.verify(TOKEN)).contains(principal);
+
+        verify(jwtUtil, times(1)).verifyToken(TOKEN);
+        assertThat(tokenCacheService.stats().hitCount()).isEqualTo(1);
+        assertThat(tokenCacheService.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache tokens that fail verification")
+    void verify_InvalidToken_ShouldNotCache() {
+        when(jwtUtil.verifyToken(TOKEN)).thenReturn(Optional.empty());
+
+        assertThat(tokenCacheService.verify(TOKEN)).isEmpty();
+        assertThat(tokenCacheService.verify(TOKEN)).isEmpty();
+
+        verify(jwtUtil, times(2)).verifyToken(TOKEN);
+    }
+
+    @Test
+    @DisplayName("Should drop an entry when the token it was verified from expires")
+    void verify_AfterTokenExpiry_ShouldReverify() {
+        JwtPrincipal principal = principal(Instant.now().plus(Duration.ofMinutes(10)));
+        when(jwtUtil.verifyToken(TOKEN)).thenReturn(Optional.of(principal));
+        tokenCacheService.verify(TOKEN);
+
+        nanos.addAndGet(Duration.ofMinutes(9).toNanos());
+        tokenCacheService.verify(TOKEN);
+        verify(jwtUtil, times(1)).verifyToken(TOKEN);
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        tokenCacheService.verify(TOKEN);
+        verify(jwtUtil, times(2)).verifyToken(TOKEN);
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal(42L, "john@example.com", "ROLE_USER", 0, null, "jti-1", expiresAt);
+    }
+}
@@ -0,0 +1,90 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.entity.RevokedToken;
+import com.erp.valid.repository.RevokedTokenRepository;
+import com.erp.valid.util.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@IntegrationTest
+@DisplayName("TokenRevocationService Integration Tests")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAll();
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should reject a revoked token and accept others")
+    void isRevoked_AfterRevoke_ShouldBeTrueOnlyForThatToken() {
+        JwtPrincipal revoked = principal(Instant.now().plus(15, ChronoUnit.MINUTES));
+        JwtPrincipal other = principal(Instant.now().plus(15, ChronoUnit.MINUTES));
+
+        tokenRevocationService.revoke(revoked);
+
+        assertThat(tokenRevocationService.isRevoked(revoked)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(other)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should survive a rebuild and drop entries once the token has expired")
+    void rebuild_ShouldKeepLiveEntriesAndAgeOutExpiredOnes() {
+        JwtPrincipal live = principal(Instant.now().plus(15, ChronoUnit.MINUTES));
+        tokenRevocationService.revoke(live);
+        revokedTokenRepository.save(new RevokedToken(
+                UUID.randomUUID().toString(), Instant.now().minusSeconds(1)));
+
+        tokenRevocationService.rebuild();
+
+        assertThat(tokenRevocationService.isRevoked(live)).isTrue();
+        assertThat(revokedTokenRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep a revocation made while a rebuild was reading its snapshot")
+    void revoke_DuringRebuild_ShouldNotBeLost() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        TokenRevocationService service = new TokenRevocationService(repository);
+        ReflectionTestUtils.setField(service, "expectedInsertions", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+        service.rebuild();
+
+        JwtPrincipal revoked = principal(Instant.now().plus(15, ChronoUnit.MINUTES));
+        // The revoke lands after the snapshot was read, which therefore misses its row
+        when(repository.findActiveJtis(any())).thenAnswer(invocation -> {
+            service.revoke(revoked);
+            return List.of();
+        });
+        when(repository.existsById(revoked.tokenId())).thenReturn(true);
+
+        service.rebuild();
+
+        assertThat(service.isRevoked(revoked)).isTrue();
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal(1L, "revoked@example.com", "ROLE_USER", 0, null,
+                UUID.randomUUID().toString(), expiresAt);
+    }
+}
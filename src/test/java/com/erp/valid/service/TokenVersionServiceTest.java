@@ -0,0 +1,93 @@
+package com.erp.valid.service;
+
+import com.erp.valid.IntegrationTest;
+import com.erp.valid.TestUsers;
+import com.erp.valid.dto.AuthResponse;
+import com.erp.valid.dto.LoginRequest;
+import com.erp.valid.exception.ConflictException;
+import com.erp.valid.repository.RefreshTokenRepository;
+import com.erp.valid.repository.UserRepository;
+import com.erp.valid.util.JwtPrincipal;
+import com.erp.valid.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+@DisplayName("TokenVersionService Integration Tests")
+class TokenVersionServiceTest {
+
+    private static final String EMAIL = "version@example.com";
+    private static final String PASSWORD = "password123";
+    private static final String CLIENT_IP = "127.0.0.2";
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private AccountLockoutService lockoutService;
+
+    @Autowired
+    private TestUsers testUsers;
+
+    @BeforeEach
+    void setUp() {
+        testUsers.create("versionuser", EMAIL, PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        testUsers.deleteAll();
+        lockoutService.unlockAccount(EMAIL);
+        lockoutService.unblockIp(CLIENT_IP);
+    }
+
+    @Test
+    @DisplayName("Logout everywhere should invalidate earlier tokens but not new ones")
+    void logoutAll_ShouldRejectTokensIssuedBefore() {
+        JwtPrincipal before = login();
+        assertThat(tokenVersionService.isCurrent(before)).isTrue();
+
+        userService.logoutAll(before.userId());
+
+        assertThat(tokenVersionService.isCurrent(before)).isFalse();
+        assertThat(refreshTokenRepository.count()).isZero();
+        assertThat(tokenVersionService.isCurrent(login())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Locking the account should invalidate its outstanding tokens")
+    void lockAccount_ShouldRejectOutstandingTokens() {
+        JwtPrincipal before = login();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> userService.login(new LoginRequest(EMAIL, "wrong"), CLIENT_IP, null))
+                    .isInstanceOf(ConflictException.class);
+        }
+
+        assertThat(userRepository.findByEmail(EMAIL).orElseThrow().isAccountLocked()).isTrue();
+        assertThat(tokenVersionService.isCurrent(before)).isFalse();
+    }
+
+    private JwtPrincipal login() {
+        AuthResponse response = userService.login(new LoginRequest(EMAIL, PASSWORD), CLIENT_IP, null);
+        return jwtUtil.verifyToken(response.getToken()).orElseThrow();
+    }
+}
@@ -1,35 +1,53 @@
 package com.erp.valid.service;
 
+import com.erp.valid.dto.AuthResponse;
+import com.erp.valid.dto.LoginRequest;
 import com.erp.valid.dto.RegisterRequest;
 import com.erp.valid.dto.UserResponse;
+import com.erp.valid.dto.VerifyOtpRequest;
 import com.erp.valid.entity.Role;
 import com.erp.valid.entity.User;
 import com.erp.valid.exception.ConflictException;
 import com.erp.valid.exception.RoleNotFoundException;
 import com.erp.valid.repository.RoleRepository;
 import com.erp.valid.repository.UserRepository;
+import com.erp.valid.util.JwtPrincipal;
+import com.erp.valid.util.JwtUtil;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("UserService Unit Tests")
 class UserServiceTest {
 
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
     @Mock
     private UserRepository userRepository;
 
@@ -39,6 +57,32 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private OtpStore otpStore;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private AccountLockoutService lockoutService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     @InjectMocks
     private UserService userService;
 
@@ -77,11 +121,10 @@ class UserServiceTest {
     @DisplayName("Should successfully register user with valid data")
     void registerUser_WithValidData_ShouldReturnUserResponse() throws Exception {
         // Arrange
-        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
         when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
+        when(roleRepository.getReferenceById(1L)).thenReturn(defaultRole);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
 
         // Act
         UserResponse response = userService.registerUser(validRequest);
@@ -91,14 +134,37 @@ class UserServiceTest {
         assertThat(response.getId()).isEqualTo(1L);
         assertThat(response.getUsername()).isEqualTo("testuser");
         assertThat(response.getEmail()).isEqualTo("test@example.com");
-        assertThat(response.getMessage()).isEqualTo("User registered successfully");
+        assertThat(response.getMessage()).isEqualTo("Registration successful! Please check your email for OTP verification.");
 
-        // Verify interactions
-        verify(userRepository, times(1)).findByUsername("testuser");
-        verify(userRepository, times(1)).findByEmail("test@example.com");
+        // Verify interactions: one combined existence check, then the insert
+        verify(userRepository, times(1)).findTakenKeys("testuser", "test@example.com");
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
         verify(roleRepository, times(1)).findByName("ROLE_USER");
         verify(passwordEncoder, times(1)).encode("password123");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(otpStore, times(1)).store(eq("test@example.com"), anyString());
+        verify(emailService, times(1)).sendOtpEmail(eq("test@example.com"), anyString());
+    }
+
+    @Test
+    @DisplayName("Should hash the password before the registration transaction opens")
+    void registerUser_ShouldHashOutsideTransaction() {
+        // Arrange
+        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
+        when(roleRepository.getReferenceById(1L)).thenReturn(defaultRole);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+
+        // Act
+        userService.registerUser(validRequest);
+
+        // Assert: no connection is held while the signup waits for the hashing pool
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager, userRepository);
+        inOrder.verify(passwordEncoder).encode("password123");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).saveAndFlush(any(User.class));
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
@@ -113,18 +179,63 @@ class UserServiceTest {
                 .hasMessage("Passwords do not match");
 
         // Verify no database interactions
-        verify(userRepository, never()).findByUsername(anyString());
-        verify(userRepository, never()).findByEmail(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
-    @DisplayName("Should throw ConflictException when username already exists")
+    @DisplayName("Should resolve the default role once and reuse its id")
+    void registerUser_Twice_ShouldLookUpDefaultRoleOnce() {
+        // Arrange
+        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
+        when(roleRepository.getReferenceById(1L)).thenReturn(defaultRole);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+
+        // Act
+        userService.registerUser(validRequest);
+        userService.registerUser(validRequest);
+
+        // Verify
+        verify(roleRepository, times(1)).findByName("ROLE_USER");
+        verify(roleRepository, times(2)).getReferenceById(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject a taken username before hashing the password")
+    void registerUser_WithTakenUsername_ShouldNotHashPassword() {
+        // Arrange
+        when(userRepository.findTakenKeys("testuser", "test@example.com")).thenReturn(List.of("email", "username"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.registerUser(validRequest))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Username already exists");
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a taken email, in any case, before hashing the password")
+    void registerUser_WithTakenEmail_ShouldNotHashPassword() {
+        // Arrange
+        validRequest.setEmail("Test@Example.com");
+        when(userRepository.findTakenKeys("testuser", "test@example.com")).thenReturn(List.of("email"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.registerUser(validRequest))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Email already exists");
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should throw ConflictException when a racing signup takes the username first")
     void registerUser_WithExistingUsername_ShouldThrowConflictException() {
         // Arrange
-        User existingUser = new User();
-        existingUser.setUsername("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(existingUser));
+        stubDuplicateInsert("PUBLIC.UK_USERS_USERNAME_INDEX_4");
 
         // Act & Assert
         assertThatThrownBy(() -> userService.registerUser(validRequest))
@@ -132,8 +243,153 @@ class UserServiceTest {
                 .hasMessage("Username already exists");
 
         // Verify
-        verify(userRepository, times(1)).findByUsername("testuser");
-        verify(userRepository, never()).findByEmail(anyString());
+        verify(otpStore, never()).store(anyString(), anyString());
+        verify(emailService, never()).sendOtpEmail(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should throw ConflictException when a racing signup takes the email first")
+    void registerUser_WithExistingEmail_ShouldThrowConflictException() {
+        // Arrange
+        stubDuplicateInsert("uk_users_email");
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.registerUser(validRequest))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Email already exists");
+    }
+
+    @Test
+    @DisplayName("Should rethrow integrity violations on other constraints")
+    void registerUser_WithOtherConstraintViolation_ShouldRethrow() {
+        // Arrange
+        stubDuplicateInsert("fk_users_role");
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.registerUser(validRequest))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private void stubDuplicateInsert(String constraintName) {
+        when(roleRepository.findByName("ROLE_USER")).thenReturn(Optional.of(defaultRole));
+        when(roleRepository.getReferenceById(1L)).thenReturn(defaultRole);
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("Unique index violation", new SQLException(), constraintName)));
+    }
+
+    @Test
+    @DisplayName("Should rehash an outdated password hash on successful login")
+    void login_WithOutdatedHash_ShouldUpgradePasswordHash() {
+        // Arrange
+        savedUser.setActive(true);
+        savedUser.setPassword("$2a$10$legacyBareBcryptHash");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(savedUser));
+        when(passwordEncoder.matches("password123", "$2a$10$legacyBareBcryptHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$legacyBareBcryptHash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("{argon2}newHash");
+        when(refreshTokenService.createRefreshToken(savedUser, null))
+                .thenReturn(new RefreshTokenService.IssuedRefreshToken(SESSION_ID, "refresh-token"));
+        when(jwtUtil.generateToken(1L, "test@example.com", "ROLE_USER", 0, SESSION_ID)).thenReturn("access-token");
+
+        // Act
+        AuthResponse response = userService.login(new LoginRequest("test@example.com", "password123"), "127.0.0.1", null);
+
+        // Assert
+        assertThat(response.getToken()).isEqualTo("access-token");
+        assertThat(savedUser.getPassword()).isEqualTo("{argon2}newHash");
+        verify(userRepository).save(savedUser);
+    }
+
+    @Test
+    @DisplayName("Should check the password before the login transaction opens")
+    void login_ShouldHashOutsideTransaction() {
+        // Arrange
+        savedUser.setActive(true);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(savedUser));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(refreshTokenService.createRefreshToken(savedUser, null))
+                .thenReturn(new RefreshTokenService.IssuedRefreshToken(SESSION_ID, "refresh-token"));
+
+        // Act
+        userService.login(new LoginRequest("test@example.com", "password123"), "127.0.0.1", null);
+
+        // Assert: the user row is unchanged, so only the session is written
+        InOrder inOrder = inOrder(passwordEncoder, transactionManager, refreshTokenService);
+        inOrder.verify(passwordEncoder).matches("password123", "encodedPassword");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(refreshTokenService).createRefreshToken(savedUser, null);
+        inOrder.verify(transactionManager).commit(any());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Should count a login for an unknown email against the client address")
+    void login_WithUnknownEmail_ShouldRecordIpFailure() {
+        // Arrange
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.login(
+                new LoginRequest("nobody@example.com", "password123"), "203.0.113.7", null))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Invalid email or password");
+
+        verify(lockoutService).handleFailedLogin("203.0.113.7");
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should end only the session the access token was issued for on logout")
+    void logout_ShouldDeleteOnlyTheTokensSession() {
+        JwtPrincipal principal = new JwtPrincipal(1L, "test@example.com", "ROLE_USER", 0, SESSION_ID,
+                "jti-1", Instant.now().plusSeconds(900));
+
+        userService.logout(principal);
+
+        verify(refreshTokenService).deleteFamily(1L, SESSION_ID);
+        verify(refreshTokenService, never()).deleteByUserId(anyLong());
+        verify(tokenRevocationService).revoke(principal);
+    }
+
+    @Test
+    @DisplayName("Should not rehash a current password hash")
+    void login_WithCurrentHash_ShouldKeepPasswordHash() {
+        // Arrange
+        savedUser.setActive(true);
+        savedUser.setPassword("{bcrypt}currentHash");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(savedUser));
+        when(passwordEncoder.matches("password123", "{bcrypt}currentHash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}currentHash")).thenReturn(false);
+        when(refreshTokenService.createRefreshToken(savedUser, null))
+                .thenReturn(new RefreshTokenService.IssuedRefreshToken(SESSION_ID, "refresh-token"));
+
+        // Act
+        userService.login(new LoginRequest("test@example.com", "password123"), "127.0.0.1", null);
+
+        // Assert
+        assertThat(savedUser.getPassword()).isEqualTo("{bcrypt}currentHash");
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject and not activate when OTP attempts are exhausted")
+    void verifyOtp_WithExhaustedAttempts_ShouldThrowConflictException() {
+        // Arrange
+        VerifyOtpRequest request = new VerifyOtpRequest();
+        request.setEmail("test@example.com");
+        request.setOtp("000000");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(savedUser));
+        when(otpStore.verifyAndConsume("test@example.com", "000000"))
+                .thenReturn(OtpStore.VerifyResult.TOO_MANY_ATTEMPTS);
+
+        // Act & Assert
+        assertThatThrownBy(() -> userService.verifyOtpAndGenerateToken(request, null))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Too many invalid OTP attempts");
+
+        assertThat(savedUser.isActive()).isFalse();
         verify(userRepository, never()).save(any(User.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.erp.valid.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtUtil Unit Tests")
+class JwtUtilTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    private static final String SECRET =
+            "aVeryLongSecretKeyForJWTTokenGenerationThatIsAtLeast256BitsLongAndSecure!@#$%^&*()1234567890";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(keyRing(JwtKeyRing.Algorithm.HS256));
+    }
+
+    @TempDir
+    Path keyDir;
+
+    static JwtKeyRing keyRing(JwtKeyRing.Algorithm algorithm) {
+        return keyRing(algorithm, null, 0);
+    }
+
+    static JwtKeyRing keyRing(JwtKeyRing.Algorithm algorithm, Path keyDir, long publishLeadMs) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "secret", SECRET);
+        ReflectionTestUtils.setField(keyRing, "keyDir", keyDir != null ? keyDir.toString() : "");
+        ReflectionTestUtils.setField(keyRing, "publishLeadMs", publishLeadMs);
+        ReflectionTestUtils.setField(keyRing, "jwksMaxAgeSeconds", 0L);
+        keyRing.init();
+        return keyRing;
+    }
+
+    static JwtUtil jwtUtil(JwtKeyRing keyRing) {
+        JwtUtil jwtUtil = new JwtUtil(keyRing);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900_000L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    @DisplayName("Should return typed principal for a valid token")
+    void verifyToken_WithValidToken_ShouldReturnPrincipal() {
+        String token = jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+
+        JwtPrincipal principal = jwtUtil.verifyToken(token).orElseThrow();
+
+        assertThat(principal.userId()).isEqualTo(42L);
+        assertThat(principal.email()).isEqualTo("john@example.com");
+        assertThat(principal.getName()).isEqualTo("john@example.com");
+        assertThat(principal.role()).isEqualTo("ROLE_USER");
+        assertThat(principal.sessionId()).isEqualTo(SESSION_ID);
+        assertThat(principal.expiresAt()).isAfter(Instant.now());
+        assertThat(principal.tokenId()).isNotBlank()
+                .isNotEqualTo(jwtUtil.verifyToken(jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID))
+                        .orElseThrow().tokenId());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered and expired tokens")
+    void verifyToken_WithInvalidToken_ShouldReturnEmpty() {
+        String token = jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+        assertThat(jwtUtil.verifyToken(token + "x")).isEmpty();
+        assertThat(jwtUtil.verifyToken("not-a-jwt")).isEmpty();
+
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1_000L);
+        String expired = jwtUtil.generateToken(42L, "john@example.com", "ROLE_USER", 0, SESSION_ID);
+        assertThat(jwtUtil.verifyToken(expired)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = JwtKeyRing.Algorithm.class, names = {"ES256", "EdDSA"})
+    @DisplayName("Should keep verifying tokens signed by a rotated asymmetric key")
+    void verifyToken_AfterKeyRotation_ShouldAcceptOldAndNewTokens(JwtKeyRing.Algorithm algorithm) throws Exception {
+        JwtKeyFiles.write(keyDir, "key-1", algorithm, Instant.EPOCH);
+        JwtKeyRing keyRing = keyRing(algorithm, keyDir, 0);
+        JwtUtil asymmetric = jwtUtil(keyRing);
+
+        String oldToken = asymmetric.generateToken(1L, "old@example.com", "ROLE_USER", 0, SESSION_ID);
+        JwtKeyFiles.write(keyDir, "key-2", algorithm, Instant.now());
+        keyRing.reload();
+        String newToken = asymmetric.generateToken(2L, "new@example.com", "ROLE_USER", 0, SESSION_ID);
+
+        assertThat(keyRing.activeKey().kid()).isEqualTo("key-2");
+
+        assertThat(asymmetric.verifyToken(oldToken)).map(JwtPrincipal::userId).contains(1L);
+        assertThat(asymmetric.verifyToken(newToken)).map(JwtPrincipal::userId).contains(2L);
+        assertThat(jwtUtil.verifyToken(newToken)).isEmpty();
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyRing.jwks().get("keys");
+        assertThat(keys).hasSize(2);
+        assertThat(keys).extracting(k -> k.get("kid"))
+                .contains(keyRing.activeKey().kid());
+        assertThat(keys).allSatisfy(k -> assertThat(k).doesNotContainKey("d"));
+        assertThat(new ObjectMapper().writeValueAsString(keyRing.jwks()))
+                .contains("\"kty\"", "\"x\"");
+    }
+
+    @Test
+    @DisplayName("Should share keys across nodes and restarts through the key directory")
+    void verifyToken_OnAnotherNode_ShouldAccept() throws Exception {
+        JwtKeyFiles.write(keyDir, "shared", JwtKeyRing.Algorithm.EdDSA, Instant.EPOCH);
+        JwtUtil nodeA = jwtUtil(keyRing(JwtKeyRing.Algorithm.EdDSA, keyDir, 0));
+
+        String token = nodeA.generateToken(7L, "shared@example.com", "ROLE_USER", 0, SESSION_ID);
+        JwtUtil nodeB = jwtUtil(keyRing(JwtKeyRing.Algorithm.EdDSA, keyDir, 0));
+
+        assertThat(nodeB.verifyToken(token)).map(JwtPrincipal::userId).contains(7L);
+    }
+
+    @Test
+    @DisplayName("Should publish a newly added key before it starts signing")
+    void reload_NewKey_ShouldBePublishedBeforeSigning() throws Exception {
+        JwtKeyFiles.write(keyDir, "current", JwtKeyRing.Algorithm.ES256, Instant.EPOCH);
+        JwtKeyRing keyRing = keyRing(JwtKeyRing.Algorithm.ES256, keyDir, 600_000);
+
+        JwtKeyFiles.write(keyDir, "next", JwtKeyRing.Algorithm.ES256, Instant.now());
+        keyRing.reload();
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyRing.jwks().get("keys");
+        assertThat(keys).extracting(k -> k.get("kid")).containsExactlyInAnyOrder("current", "next");
+        assertThat(keyRing.activeKey().kid()).isEqualTo("current");
+        assertThat(keyRing.verificationKey("next")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should never publish the HMAC secret in the JWKS document")
+    void jwks_InHs256Mode_ShouldBeEmpty() {
+        assertThat((List<?>) keyRing(JwtKeyRing.Algorithm.HS256).jwks().get("keys")).isEmpty();
+    }
+}